@@ -0,0 +1,71 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.benchmark;
+
+import engineer.mathsoftware.jdesk.work.AppWorker;
+import engineer.mathsoftware.jdesk.work.WorkExecutors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.swing.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of dispatching an empty work with {@link AppWorker},
+ * from the execution request until its callback runs on the EDT, against a
+ * plain {@link SwingWorker} and a bare executor submission.
+ *
+ * @author Tobias Briones
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AppWorkerBenchmark {
+    @Benchmark
+    public Integer appWorker() throws Exception {
+        final LatchCallback<Integer> callback = new LatchCallback<>();
+
+        new AppWorker<Integer, Void>(NoLoadingView.INSTANCE, callback).execute(() -> 1);
+        return callback.await();
+    }
+
+    @Benchmark
+    public Integer swingWorker() throws Exception {
+        final LatchCallback<Integer> callback = new LatchCallback<>();
+
+        new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() {
+                return 1;
+            }
+
+            @Override
+            protected void done() {
+                callback.workFinished(1);
+            }
+        }.execute();
+        return callback.await();
+    }
+
+    @Benchmark
+    public Integer executorBaseline() throws Exception {
+        final LatchCallback<Integer> callback = new LatchCallback<>();
+
+        WorkExecutors.getIo().execute(
+            () -> SwingUtilities.invokeLater(() -> callback.workFinished(1))
+        );
+        return callback.await();
+    }
+}
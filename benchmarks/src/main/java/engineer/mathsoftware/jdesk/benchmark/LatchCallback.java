@@ -0,0 +1,58 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.benchmark;
+
+import engineer.mathsoftware.jdesk.work.WorkCallback;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Callback that lets the benchmark thread wait for the work result.
+ *
+ * @param <R> type of the work result
+ *
+ * @author Tobias Briones
+ */
+final class LatchCallback<R> implements WorkCallback<R> {
+    private static final long TIMEOUT_SECONDS = 30L;
+    private final CountDownLatch latch;
+    private volatile R result;
+    private volatile Exception exception;
+
+    LatchCallback() {
+        this.latch = new CountDownLatch(1);
+        this.result = null;
+        this.exception = null;
+    }
+
+    R await() throws Exception {
+        if (!latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("The work did not complete");
+        }
+        if (exception != null) {
+            throw exception;
+        }
+        return result;
+    }
+
+    @Override
+    public void workFinished(R result) {
+        this.result = result;
+        latch.countDown();
+    }
+
+    @Override
+    public void workFailed(Exception exception) {
+        this.exception = exception;
+        latch.countDown();
+    }
+
+    @Override
+    public void workCancelled() {
+        this.exception = new IllegalStateException("The work was cancelled");
+        latch.countDown();
+    }
+}
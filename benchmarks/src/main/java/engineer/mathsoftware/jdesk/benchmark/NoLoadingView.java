@@ -0,0 +1,33 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.benchmark;
+
+import engineer.mathsoftware.jdesk.work.ProgressLoadingView;
+
+/**
+ * Loading view that does nothing, so the benchmarks measure the work framework
+ * only.
+ *
+ * @author Tobias Briones
+ */
+final class NoLoadingView implements ProgressLoadingView {
+    static final NoLoadingView INSTANCE = new NoLoadingView();
+
+    private NoLoadingView() {}
+
+    @Override
+    public boolean isRunning() {
+        return false;
+    }
+
+    @Override
+    public void start() {}
+
+    @Override
+    public void end() {}
+
+    @Override
+    public void setProgress(float progress) {}
+}
@@ -0,0 +1,64 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.benchmark;
+
+import engineer.mathsoftware.jdesk.work.Progress;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the contention of {@link Progress} when several threads add
+ * processed items while another one takes snapshots, as the UI does. Run it
+ * with a different thread count with "-tg", for example "-tg 7,1".
+ *
+ * @author Tobias Briones
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Group)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ProgressBenchmark {
+    private Progress progress;
+
+    @Setup
+    public void setUp() {
+        progress = new Progress(Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(3)
+    public void add() {
+        progress.add();
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public Progress.Snapshot snapshot() {
+        return progress.snapshot();
+    }
+
+    @Benchmark
+    @Group("uncontended")
+    @GroupThreads(1)
+    public void addAlone() {
+        progress.add();
+    }
+}
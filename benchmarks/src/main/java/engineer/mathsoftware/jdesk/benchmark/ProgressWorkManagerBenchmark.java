@@ -0,0 +1,85 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.benchmark;
+
+import engineer.mathsoftware.jdesk.work.ProgressWorkManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how a partitioned {@link ProgressWorkManager} work scales with the
+ * number of threads, including the progress updates of every item.
+ *
+ * @author Tobias Briones
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ProgressWorkManagerBenchmark {
+    @Param({ "1", "2", "4", "8" })
+    public int threads;
+
+    @Param({ "10000" })
+    public int items;
+
+    @Param({ "1000" })
+    public int itemTokens;
+    private ForkJoinPool pool;
+    private List<Integer> itemList;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(threads);
+        itemList = new ArrayList<>(items);
+
+        for (int i = 0; i < items; i++) {
+            itemList.add(i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Integer executePartitioned() throws Exception {
+        final LatchCallback<Integer> callback = new LatchCallback<>();
+        final ProgressWorkManager<Integer> manager = new ProgressWorkManager<>(
+            NoLoadingView.INSTANCE,
+            callback
+        );
+
+        manager.executePartitioned(
+            pool,
+            itemList,
+            item -> {
+                Blackhole.consumeCPU(itemTokens);
+                return item;
+            },
+            List::size
+        );
+        return callback.await();
+    }
+}
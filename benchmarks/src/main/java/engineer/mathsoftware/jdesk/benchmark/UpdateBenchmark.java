@@ -0,0 +1,107 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.benchmark;
+
+import engineer.mathsoftware.jdesk.work.AppWorker;
+import engineer.mathsoftware.jdesk.work.UpdateChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.swing.*;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures the throughput of posting updates from background threads with
+ * {@link AppWorker#update(Object)} for each {@link UpdateChannel.Mode},
+ * against {@link SwingWorker} publish. The updates are delivered to the EDT
+ * while the producers post them, so the batch mode includes its backpressure.
+ *
+ * @author Tobias Briones
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Threads(4)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UpdateBenchmark {
+    @Param({ "BATCH", "LATEST" })
+    public UpdateChannel.Mode mode;
+    private LongAdder delivered;
+    private CountDownLatch running;
+    private AppWorker<Void, Integer> worker;
+    private Publisher publisher;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        delivered = new LongAdder();
+        running = new CountDownLatch(1);
+        worker = new AppWorker<>(
+            NoLoadingView.INSTANCE,
+            null,
+            updates -> delivered.add(updates.size())
+        );
+        publisher = new Publisher(delivered);
+
+        worker.setUpdateMode(mode);
+        worker.execute(() -> {
+            running.await();
+            return null;
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        running.countDown();
+    }
+
+    @Benchmark
+    public void appWorkerUpdate() {
+        worker.update(1);
+    }
+
+    @Benchmark
+    public void swingWorkerPublish() {
+        publisher.publishUpdate(1);
+    }
+
+    private static final class Publisher extends SwingWorker<Void, Integer> {
+        private final LongAdder delivered;
+
+        private Publisher(LongAdder delivered) {
+            this.delivered = delivered;
+        }
+
+        private void publishUpdate(Integer update) {
+            publish(update);
+        }
+
+        @Override
+        protected Void doInBackground() {
+            return null;
+        }
+
+        @Override
+        protected void process(List<Integer> chunks) {
+            delivered.add(chunks.size());
+        }
+    }
+}
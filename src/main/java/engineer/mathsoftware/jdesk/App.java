@@ -7,9 +7,15 @@ package engineer.mathsoftware.jdesk;
 import engineer.mathsoftware.jdesk.resources.AppStringResources;
 import engineer.mathsoftware.jdesk.resources.Resources;
 import engineer.mathsoftware.jdesk.resources.StringResources;
+import engineer.mathsoftware.jdesk.work.AppWorker;
+import engineer.mathsoftware.jdesk.work.EdtWatchdog;
+import engineer.mathsoftware.jdesk.work.FileStallSink;
+import engineer.mathsoftware.jdesk.work.WorkExecutors;
 
 import javax.swing.*;
 import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Paths;
 
 /**
  * Entry point to build an application.
@@ -21,7 +27,23 @@ public abstract class App {
      * File to store the app main configuration.
      */
     public static final String APP_CONFIG_FILE = "config.properties";
+
+    /**
+     * System property with the threshold in milliseconds to install an {@link
+     * EdtWatchdog} that appends the stalls to {@link
+     * FileStallSink#DEFAULT_FILE}.
+     */
+    public static final String EDT_WATCHDOG_PROPERTY = "jdesk.edtWatchdog";
+
+    /**
+     * Key of the app config file with the default timeout of the background
+     * works in milliseconds.
+     *
+     * @see WorkExecutors#setDefaultTimeout(long)
+     */
+    public static final String WORK_TIMEOUT_KEY = "work.timeout";
     private Window mw;
+    private EdtWatchdog edtWatchdog;
 
     /**
      * Constructor for an Application which registers the app's main font.
@@ -30,8 +52,11 @@ public abstract class App {
      */
     public App(Font font) {
         this.mw = null;
+        this.edtWatchdog = null;
 
         presetUI(font);
+        loadWorkTimeout();
+        installEdtWatchdogFromProperty();
     }
 
     /**
@@ -72,6 +97,39 @@ public abstract class App {
         addWindow(window);
     }
 
+    /**
+     * Installs a watchdog that reports the stalls of the EDT longer than the
+     * given threshold to the sink. If a watchdog was already installed, it's
+     * replaced.
+     *
+     * @param thresholdMillis minimum duration of a stall in milliseconds
+     * @param sink            sink to report the stalls to
+     *
+     * @return the installed watchdog
+     *
+     * @see #EDT_WATCHDOG_PROPERTY
+     */
+    public final EdtWatchdog installEdtWatchdog(
+        long thresholdMillis,
+        EdtWatchdog.StallSink sink
+    ) {
+        uninstallEdtWatchdog();
+        edtWatchdog = new EdtWatchdog(thresholdMillis, sink);
+
+        edtWatchdog.start();
+        return edtWatchdog;
+    }
+
+    /**
+     * Stops the installed EDT watchdog, if any.
+     */
+    public final void uninstallEdtWatchdog() {
+        if (edtWatchdog != null) {
+            edtWatchdog.stop();
+            edtWatchdog = null;
+        }
+    }
+
     /**
      * Adds a window for the application.
      *
@@ -81,6 +139,38 @@ public abstract class App {
         SwingUtilities.invokeLater(window::createWindow);
     }
 
+    private static void loadWorkTimeout() {
+        try {
+            final String timeout = Config.get(
+                Paths.get(APP_CONFIG_FILE),
+                WORK_TIMEOUT_KEY,
+                AppWorker.NO_TIMEOUT
+            );
+
+            WorkExecutors.setDefaultTimeout(Long.parseLong(timeout));
+        }
+        catch (IOException | IllegalArgumentException e) {
+            System.err.println("Fail to load the work timeout");
+        }
+    }
+
+    private void installEdtWatchdogFromProperty() {
+        final String threshold = System.getProperty(EDT_WATCHDOG_PROPERTY);
+
+        if (threshold == null) {
+            return;
+        }
+        try {
+            installEdtWatchdog(
+                Long.parseLong(threshold),
+                new FileStallSink(Paths.get(FileStallSink.DEFAULT_FILE))
+            );
+        }
+        catch (IllegalArgumentException e) {
+            System.err.println("Invalid EDT watchdog threshold: " + threshold);
+        }
+    }
+
     private static void presetUI(Font font) {
         setLookAndFeel();
 
@@ -10,6 +10,7 @@ import engineer.mathsoftware.jdesk.ui.style.AppStyle;
 import engineer.mathsoftware.jdesk.ui.style.DefaultStyle;
 import engineer.mathsoftware.jdesk.ui.style.Style;
 import engineer.mathsoftware.jdesk.ui.view.Panel;
+import engineer.mathsoftware.jdesk.work.WorkScope;
 
 import javax.swing.*;
 import java.awt.*;
@@ -26,6 +27,7 @@ abstract class FrameWindow extends JFrame implements WindowContext {
     private static final long serialVersionUID = 3319905613616655519L;
     private final boolean hasSizeSet;
     private final transient AppInstance appInstance;
+    private final transient WorkScope workScope;
     private boolean isMainWindow;
 
     /**
@@ -38,6 +40,7 @@ abstract class FrameWindow extends JFrame implements WindowContext {
     FrameWindow(AppInstance appInstance, String title, Dimension size) {
         super(title);
         this.appInstance = appInstance;
+        this.workScope = new WorkScope();
         this.hasSizeSet = (size != null);
         this.isMainWindow = false;
 
@@ -59,6 +62,7 @@ abstract class FrameWindow extends JFrame implements WindowContext {
     FrameWindow(AppInstance appInstance, StringResourceId titleRes, Dimension size) {
         super();
         this.appInstance = appInstance;
+        this.workScope = new WorkScope();
         this.hasSizeSet = (size != null);
         this.isMainWindow = false;
 
@@ -117,6 +121,19 @@ abstract class FrameWindow extends JFrame implements WindowContext {
         return appInstance;
     }
 
+    /**
+     * Returns the scope of the works started by this window. It's closed when
+     * this window is detached, so the works that are still running are
+     * cancelled within its grace period.
+     *
+     * @return the work scope of this window
+     *
+     * @see WorkScope
+     */
+    public final WorkScope getWorkScope() {
+        return workScope;
+    }
+
     /**
      * Returns if this window is a main window.
      *
@@ -127,7 +144,9 @@ abstract class FrameWindow extends JFrame implements WindowContext {
     }
 
     /**
-     * Sets this window visible and calls {@link #windowVisible(boolean)}.
+     * Sets this window visible and calls {@link #windowVisible(boolean)}. The
+     * {@link PowerManager} is updated, so hiding all the windows puts the app
+     * in low-power mode.
      *
      * @param visible visible
      */
@@ -135,6 +154,7 @@ abstract class FrameWindow extends JFrame implements WindowContext {
     public void setVisible(boolean visible) {
         super.setVisible(visible);
         windowVisible(visible);
+        PowerManager.update();
     }
 
     /**
@@ -210,10 +230,17 @@ abstract class FrameWindow extends JFrame implements WindowContext {
 
     /**
      * Called when this window is detached. If it is a main window it occurs
-     * when is being closed, otherwise when is closed.
+     * when is being closed, otherwise when is closed. The {@link
+     * #getWorkScope()} is closed right after.
      */
     protected abstract void windowDetached();
 
+    private void detach() {
+        windowDetached();
+        workScope.close();
+        PowerManager.windowDetached(this);
+    }
+
     private void requireAppInstance() {
         if (getStringResources() == null || getAppStyle() == null) {
             final String msg = "Window context is not set, you must implement AppInstance";
@@ -230,30 +257,39 @@ abstract class FrameWindow extends JFrame implements WindowContext {
         @Override
         public void windowOpened(WindowEvent e) {
             window.windowOpened();
+            PowerManager.windowOpened(window);
         }
 
         @Override
         public void windowClosing(WindowEvent e) {
             if (window.isMainWindow()) {
-                window.windowDetached();
+                window.detach();
             }
         }
 
         @Override
         public void windowClosed(WindowEvent e) {
-            window.windowDetached();
+            window.detach();
         }
 
         @Override
-        public void windowIconified(WindowEvent e) {}
+        public void windowIconified(WindowEvent e) {
+            PowerManager.update();
+        }
 
         @Override
-        public void windowDeiconified(WindowEvent e) {}
+        public void windowDeiconified(WindowEvent e) {
+            PowerManager.update();
+        }
 
         @Override
-        public void windowActivated(WindowEvent e) {}
+        public void windowActivated(WindowEvent e) {
+            PowerManager.update();
+        }
 
         @Override
-        public void windowDeactivated(WindowEvent e) {}
+        public void windowDeactivated(WindowEvent e) {
+            PowerManager.update();
+        }
     }
 }
@@ -0,0 +1,190 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk;
+
+import engineer.mathsoftware.jdesk.ui.view.loading.AnimationScheduler;
+import engineer.mathsoftware.jdesk.work.WorkExecutors;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * App-wide power manager that puts the app in low-power mode when none of its
+ * windows can be seen, that is when they are iconified or hidden. In low-power
+ * mode the {@link AnimationScheduler} is paused, the tasks queued on the
+ * {@link WorkExecutors#getBackground()} executor wait, and the listeners are
+ * notified to pause their own timers. Everything is resumed as soon as a
+ * window is restored or shown.
+ * <p>
+ * The low-power mode is entered after a short delay, so quickly minimizing
+ * and restoring a window doesn't pause and resume the app. It can optionally
+ * be entered also when the app has no active window, which is when it's
+ * covered by other apps, and it can be disabled to always keep the app
+ * running.
+ * <p>
+ * It must be used from the EDT.
+ *
+ * @author Tobias Briones
+ */
+public final class PowerManager {
+    /**
+     * Listener notified when the app enters or leaves the low-power mode.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * Called on the EDT when the app enters or leaves the low-power mode.
+         *
+         * @param isLowPower {@code true} if the app entered the low-power mode
+         */
+        void lowPowerChanged(boolean isLowPower);
+    }
+
+    /**
+     * Delay in milliseconds before entering the low-power mode.
+     */
+    public static final int ENTER_DELAY = 1000;
+    private static final List<FrameWindow> windows = new ArrayList<>();
+    private static final List<Listener> listeners = new ArrayList<>();
+    private static Timer enterTimer = null;
+    private static boolean isEnabled = true;
+    private static boolean isPauseWhenInactive = false;
+    private static boolean isLowPower = false;
+
+    /**
+     * Returns {@code true} if and only if the app is in low-power mode.
+     *
+     * @return {@code true} if and only if the app is in low-power mode
+     */
+    public static boolean isLowPower() {
+        return isLowPower;
+    }
+
+    /**
+     * Returns {@code true} if and only if the power manager is enabled.
+     *
+     * @return {@code true} if and only if the power manager is enabled
+     */
+    public static boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * Enables or disables the power manager. When it's disabled, the app
+     * leaves the low-power mode and never enters it.
+     *
+     * @param isEnabled {@code true} to enable the power manager
+     */
+    public static void setEnabled(boolean isEnabled) {
+        PowerManager.isEnabled = isEnabled;
+        update();
+    }
+
+    /**
+     * Sets whether the app enters the low-power mode also when it has no
+     * active window. It's disabled by default since the windows of an inactive
+     * app are often still visible.
+     *
+     * @param isPauseWhenInactive {@code true} to enter the low-power mode when
+     *                            the app is not active
+     */
+    public static void setPauseWhenInactive(boolean isPauseWhenInactive) {
+        PowerManager.isPauseWhenInactive = isPauseWhenInactive;
+        update();
+    }
+
+    /**
+     * Adds a listener notified when the app enters or leaves the low-power
+     * mode.
+     *
+     * @param listener listener to add
+     */
+    public static void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener listener to remove
+     */
+    public static void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    static void windowOpened(FrameWindow window) {
+        if (!windows.contains(window)) {
+            windows.add(window);
+        }
+        update();
+    }
+
+    static void windowDetached(FrameWindow window) {
+        windows.remove(window);
+        update();
+    }
+
+    static void update() {
+        if (!shouldBeLowPower()) {
+            if (enterTimer != null) {
+                enterTimer.stop();
+            }
+            setLowPower(false);
+        }
+        else if (!isLowPower) {
+            if (enterTimer == null) {
+                enterTimer = new Timer(ENTER_DELAY, e -> {
+                    if (shouldBeLowPower()) {
+                        setLowPower(true);
+                    }
+                });
+                enterTimer.setRepeats(false);
+            }
+            if (!enterTimer.isRunning()) {
+                enterTimer.start();
+            }
+        }
+    }
+
+    private static boolean shouldBeLowPower() {
+        if (!isEnabled || windows.isEmpty()) {
+            return false;
+        }
+        if (isPauseWhenInactive && !isAppActive()) {
+            return true;
+        }
+        for (FrameWindow window : windows) {
+            final boolean isIconified =
+                (window.getExtendedState() & Frame.ICONIFIED) != 0;
+
+            if (window.isShowing() && !isIconified) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAppActive() {
+        return KeyboardFocusManager.getCurrentKeyboardFocusManager()
+                                   .getActiveWindow() != null;
+    }
+
+    private static void setLowPower(boolean isLowPower) {
+        if (PowerManager.isLowPower == isLowPower) {
+            return;
+        }
+        PowerManager.isLowPower = isLowPower;
+
+        AnimationScheduler.setPaused(isLowPower);
+        WorkExecutors.setBackgroundPaused(isLowPower);
+        for (Listener listener : new ArrayList<>(listeners)) {
+            listener.lowPowerChanged(isLowPower);
+        }
+    }
+
+    private PowerManager() {}
+}
@@ -0,0 +1,134 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.resources;
+
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide registry of the app fonts. Each font file is parsed once, and
+ * the fonts derived by style and size are shared, so the same font is not
+ * created again for each view. The fonts are immutable, and the registry can
+ * be used from any thread, so the fonts can be preloaded in the background
+ * while the app starts.
+ *
+ * @author Tobias Briones
+ */
+final class FontRegistry {
+    private static final Map<String, Font> fonts = new ConcurrentHashMap<>();
+    private static final Map<Key, Font> derivedFonts =
+        new ConcurrentHashMap<>();
+
+    /**
+     * Returns the font parsed from the given TrueType file of the classpath,
+     * it's parsed only the first time.
+     *
+     * @param path classpath path of the font file
+     *
+     * @return the font with size 1 and plain style
+     *
+     * @throws IOException         if the file can't be read
+     * @throws FontFormatException if the file is not a TrueType font
+     */
+    static Font get(String path) throws IOException, FontFormatException {
+        Font font = fonts.get(path);
+
+        if (font != null) {
+            return font;
+        }
+        // The lock is held while parsing, so each file is parsed once
+        synchronized (fonts) {
+            font = fonts.get(path);
+
+            if (font == null) {
+                font = parse(path);
+                fonts.put(path, font);
+            }
+        }
+        return font;
+    }
+
+    /**
+     * Returns the font derived from the given font with the given style and
+     * size. The derived fonts are cached by font name, style and size, but not
+     * the fonts with a transform or other layout attributes.
+     *
+     * @param font  font to derive
+     * @param style font style
+     * @param size  font size
+     *
+     * @return the derived font
+     */
+    static Font derive(Font font, int style, float size) {
+        if (font.getStyle() == style && font.getSize2D() == size) {
+            return font;
+        }
+        if (font.isTransformed() || font.hasLayoutAttributes()) {
+            return font.deriveFont(style, size);
+        }
+        final Key key = new Key(font.getName(), style, size);
+        final Font derivedFont = derivedFonts.get(key);
+
+        if (derivedFont != null) {
+            return derivedFont;
+        }
+        final Font newFont = font.deriveFont(style, size);
+        final Font oldFont = derivedFonts.putIfAbsent(key, newFont);
+        return oldFont != null ? oldFont : newFont;
+    }
+
+    private static Font parse(String path)
+        throws IOException, FontFormatException {
+        // Class loader resource names are relative and separated by slashes
+        final String name = path.replace(File.separatorChar, '/')
+                                .replaceFirst("^/", "");
+        final InputStream is = Objects.requireNonNull(
+            FontRegistry.class.getClassLoader().getResourceAsStream(name),
+            "Font not found " + path
+        );
+
+        try (InputStream fontStream = is) {
+            return Font.createFont(Font.TRUETYPE_FONT, fontStream);
+        }
+    }
+
+    private static final class Key {
+        private final String name;
+        private final int style;
+        private final float size;
+
+        private Key(String name, int style, float size) {
+            this.name = name;
+            this.style = style;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return style == key.style
+                   && Float.compare(size, key.size) == 0
+                   && name.equals(key.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, style, size);
+        }
+    }
+
+    private FontRegistry() {}
+}
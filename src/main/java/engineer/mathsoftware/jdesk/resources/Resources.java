@@ -54,7 +54,9 @@ public final class Resources {
     }
 
     /**
-     * Loads the requested font.
+     * Loads the requested font. The font file is parsed only the first time,
+     * and the font is shared with the other callers requesting the same font,
+     * style and size.
      *
      * @param fontName font name without file extension
      * @param size     font size
@@ -65,11 +67,11 @@ public final class Resources {
     public static Font loadFont(String fontName, int size, int style) {
         final String path = getFilePath(FONT_DIRECTORY, fontName, FONT_FORMAT);
         try {
-            return Font.createFont(
-                Font.TRUETYPE_FONT,
-                Objects.requireNonNull(Resources.class.getClassLoader()
-                                                      .getResourceAsStream(path))
-            ).deriveFont(style, (float) size);
+            return FontRegistry.derive(
+                FontRegistry.get(path),
+                style,
+                (float) size
+            );
         }
         catch (Exception e) {
             System.err.println("Fail to load font " + fontName);
@@ -86,18 +88,7 @@ public final class Resources {
      * @return the loaded font, {@code null} if fails to load the font
      */
     public static Font loadFont(String fontName, int size) {
-        final String path = getFilePath(FONT_DIRECTORY, fontName, FONT_FORMAT);
-        try {
-            return Font.createFont(
-                Font.TRUETYPE_FONT,
-                Objects.requireNonNull(Resources.class.getClassLoader()
-                                                      .getResourceAsStream(path))
-            ).deriveFont((float) size);
-        }
-        catch (Exception e) {
-            System.err.println("Fail to load font " + fontName);
-        }
-        return null;
+        return loadFont(fontName, size, Font.PLAIN);
     }
 
     /**
@@ -108,18 +99,53 @@ public final class Resources {
      * @return the loaded font, {@code null} if fails to load the font
      */
     public static Font loadFont(String fontName) {
-        final String path = getFilePath(FONT_DIRECTORY, fontName, FONT_FORMAT);
-        try {
-            return Font.createFont(
-                Font.TRUETYPE_FONT,
-                Objects.requireNonNull(Resources.class.getClassLoader()
-                                                      .getResourceAsStream(path))
-            ).deriveFont((float) NORMAL_FONT_SIZE);
+        return loadFont(fontName, NORMAL_FONT_SIZE, Font.PLAIN);
+    }
+
+    /**
+     * Parses the requested font files, so the fonts are ready when they are
+     * loaded. It can be called from a background thread while the app starts.
+     *
+     * @param fontNames font names without file extension
+     *
+     * @return {@code true} if and only if all the fonts were parsed
+     */
+    public static boolean preloadFonts(String... fontNames) {
+        boolean isLoaded = true;
+
+        for (String fontName : fontNames) {
+            final String path = getFilePath(
+                FONT_DIRECTORY,
+                fontName,
+                FONT_FORMAT
+            );
+            try {
+                FontRegistry.get(path);
+            }
+            catch (Exception e) {
+                System.err.println("Fail to load font " + fontName);
+                isLoaded = false;
+            }
         }
-        catch (Exception e) {
-            System.err.println("Fail to load font " + fontName);
+        return isLoaded;
+    }
+
+    /**
+     * Returns the font derived from the given font with the given style and
+     * size. The derived fonts are shared, so views deriving the same font
+     * don't create it again.
+     *
+     * @param font  font to derive
+     * @param style font style
+     * @param size  font size
+     *
+     * @return the derived font
+     */
+    public static Font deriveFont(Font font, int style, float size) {
+        if (font == null) {
+            throw new NullPointerException("Font is null");
         }
-        return null;
+        return FontRegistry.derive(font, style, size);
     }
 
     private static String getFilePath(
@@ -9,6 +9,7 @@ import engineer.mathsoftware.jdesk.WindowContext;
 import engineer.mathsoftware.jdesk.resources.AppStringResources;
 import engineer.mathsoftware.jdesk.resources.StringResourceId;
 import engineer.mathsoftware.jdesk.resources.StringResources;
+import engineer.mathsoftware.jdesk.ui.style.TextStyle;
 import engineer.mathsoftware.jdesk.ui.view.InputText;
 import engineer.mathsoftware.jdesk.ui.view.PasswordInputText;
 import engineer.mathsoftware.jdesk.ui.view.TextLabel;
@@ -630,7 +631,7 @@ public final class AppDialog {
         boolean hasIcon
     ) {
         final TextLabel label = new TextLabel(context, title);
-        label.setFont(context.getAppStyle().getFont().deriveFont(Font.BOLD));
+        label.setTextStyle(TextStyle.BOLD);
         if (hasIcon) {
             label.setBorder(new EmptyBorder(
                 0,
@@ -649,8 +650,9 @@ public final class AppDialog {
         WindowContext context,
         String msg
     ) {
-        final TextLabel label = new TextLabel(context, msg);
+        final TextLabel label = new TextLabel(context);
         label.setForeground(context.getAppStyle().getSecondaryTextColor());
+        label.setStyledText(msg);
         return label;
     }
 
@@ -8,6 +8,7 @@ import engineer.mathsoftware.jdesk.Window;
 import engineer.mathsoftware.jdesk.ui.view.loading.BarLoadingView;
 import engineer.mathsoftware.jdesk.work.AppWorker;
 import engineer.mathsoftware.jdesk.work.WorkCallback;
+import engineer.mathsoftware.jdesk.work.WorkExecutor;
 import engineer.mathsoftware.jdesk.work.WorkRunnable;
 
 import java.awt.*;
@@ -62,7 +63,33 @@ public class LoadingBarDialog extends Dialog {
         WorkCallback<R> callback,
         WorkRunnable<R> runnable
     ) {
-        final AppWorker<R, Void> work = new AppWorker<>(lbv, callback);
+        return execute(null, callback, runnable);
+    }
+
+    /**
+     * Executes the requested task on the dialog with the given executor.
+     *
+     * @param executor work executor, or {@code null} to use the default one
+     * @param callback work callback
+     * @param runnable work runnable
+     * @param <R>      type of the work result
+     *
+     * @return the app worker which executes this task
+     *
+     * @see AppWorker
+     * @see WorkExecutor
+     */
+    public final <R> AppWorker<R, Void> execute(
+        WorkExecutor executor,
+        WorkCallback<R> callback,
+        WorkRunnable<R> runnable
+    ) {
+        final AppWorker<R, Void> work = new AppWorker<>(
+            lbv,
+            callback,
+            null,
+            executor
+        );
 
         work.execute(runnable);
         return work;
@@ -8,14 +8,20 @@ import engineer.mathsoftware.jdesk.Window;
 import engineer.mathsoftware.jdesk.WindowContext;
 import engineer.mathsoftware.jdesk.resources.AppStringResources;
 import engineer.mathsoftware.jdesk.resources.StringResourceId;
+import engineer.mathsoftware.jdesk.ui.style.TextStyle;
 import engineer.mathsoftware.jdesk.ui.view.Panel;
 import engineer.mathsoftware.jdesk.ui.view.TextLabel;
 import engineer.mathsoftware.jdesk.ui.view.loading.BarLoadingView;
 import engineer.mathsoftware.jdesk.work.AppWorkCallback;
 import engineer.mathsoftware.jdesk.work.AppWorker;
 import engineer.mathsoftware.jdesk.work.WorkCallback;
+import engineer.mathsoftware.jdesk.work.WorkExecutor;
+import engineer.mathsoftware.jdesk.work.WorkExecutors;
+import engineer.mathsoftware.jdesk.work.WorkGraph;
+import engineer.mathsoftware.jdesk.work.WorkMetrics;
 import engineer.mathsoftware.jdesk.work.WorkRunnable;
 
+import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.ActionListener;
@@ -99,6 +105,8 @@ public final class TaskDialog<R> extends Dialog {
     private final String msg;
     private int taskSize;
     private transient TaskDialogCallback<R> callback;
+    private transient WorkExecutor executor;
+    private transient WorkMetrics metrics;
     private transient AppWorker<R, Void> work;
 
     /**
@@ -121,6 +129,8 @@ public final class TaskDialog<R> extends Dialog {
         this.barLoadingView = new BarLoadingView(window);
         this.msg = msg + " ";
         this.callback = null;
+        this.executor = null;
+        this.metrics = null;
         this.work = null;
         this.taskSize = -1;
 
@@ -199,6 +209,30 @@ public final class TaskDialog<R> extends Dialog {
         this.callback = callback;
     }
 
+    /**
+     * Sets the executor to run the work on. If it's not set, the default
+     * {@link AppWorker} executor is used.
+     *
+     * @param executor work executor
+     *
+     * @see WorkExecutor
+     */
+    public void setExecutor(WorkExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Sets the metrics the work reports to. If they are not set, the app-wide
+     * {@link WorkExecutors#getMetrics()} are used.
+     *
+     * @param metrics work metrics
+     *
+     * @see WorkMetrics
+     */
+    public void setMetrics(WorkMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     public void setTaskSize(int taskSize) {
         this.taskSize = taskSize;
     }
@@ -208,7 +242,9 @@ public final class TaskDialog<R> extends Dialog {
     }
 
     /**
-     * Executes the runnable task on this dialog and shows the dialog.
+     * Executes the runnable task on this dialog and shows the dialog. The work
+     * is tracked by the work scope of the owner window, so it's cancelled if
+     * the window is detached.
      *
      * @param runnable runnable
      *
@@ -222,13 +258,37 @@ public final class TaskDialog<R> extends Dialog {
         }
         work = new AppWorker<>(
             barLoadingView,
-            new DialogWorkCallback<>(this, callback)
+            new DialogWorkCallback<>(this, callback),
+            null,
+            executor
         );
 
+        work.setMetrics(metrics);
         work.execute(runnable);
+        if (getOwner() instanceof Window) {
+            ((Window) getOwner()).getWorkScope().track(work);
+        }
         setVisible(true);
     }
 
+    /**
+     * Executes the work graph on this dialog and shows the dialog. The task
+     * size is set to the number of nodes of the graph, and the dialog is
+     * updated each time a node completes.
+     *
+     * @param graph work graph
+     *
+     * @throws RuntimeException if this method is called more than one time
+     * @see WorkGraph
+     */
+    public void execute(WorkGraph<R> graph) {
+        setTaskSize(graph.size());
+        graph.setNodeListener(
+            count -> SwingUtilities.invokeLater(() -> update(count))
+        );
+        execute((WorkRunnable<R>) graph);
+    }
+
     public void update(int now) {
         msgLabel.setText(msg + now + "/" + taskSize);
         pack();
@@ -239,11 +299,7 @@ public final class TaskDialog<R> extends Dialog {
         final Panel topPanel = new Panel(context);
         final TextLabel titleLabel = new TextLabel(context, title);
 
-        titleLabel.setFont(
-            context.getAppStyle()
-                   .getFont()
-                   .deriveFont(Font.BOLD)
-        );
+        titleLabel.setTextStyle(TextStyle.BOLD);
         titleLabel.setBorder(new EmptyBorder(0, 0, 5, 0));
         msgLabel.setForeground(context.getAppStyle().getSecondaryTextColor());
         msgLabel.setBorder(new EmptyBorder(0, 0, 5, 0));
@@ -326,5 +382,13 @@ public final class TaskDialog<R> extends Dialog {
                 tdc.workCancelled();
             }
         }
+
+        @Override
+        public void workTimedOut() {
+            td.dispose();
+            if (tdc != null) {
+                tdc.workTimedOut();
+            }
+        }
     }
 }
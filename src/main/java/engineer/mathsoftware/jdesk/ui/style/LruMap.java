@@ -0,0 +1,32 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.ui.style;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Map with a maximum size that removes the least recently accessed entry when
+ * it's full, it's used to bound the caches of the text rendering.
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ *
+ * @author Tobias Briones
+ */
+final class LruMap<K, V> extends LinkedHashMap<K, V> {
+    private static final long serialVersionUID = 4360938745162398165L;
+    private final int maxSize;
+
+    LruMap(int maxSize) {
+        super(16, 0.75f, true);
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > maxSize;
+    }
+}
@@ -29,16 +29,19 @@ public class Style implements AppStyle {
     /**
      * Returns the text wrapped into HTML applying text style, it does not take
      * into account the color alpha value, the text will be inserted inside the
-     * body tag.
+     * body tag. Labels should rather use {@link StyledText}, which skips HTML
+     * for plain text and caches the parsed HTML.
      *
      * @param appStyle application style
      * @param htmlText HTML text
      *
      * @return the HTML string which body contains <code>htmlText</code> and
      * application text style
+     *
+     * @see StyledText
      */
     public static String wrapTextInHTML(AppStyle appStyle, String htmlText) {
-        return wrapTextInHTML(
+        return StyledText.toHtml(
             appStyle.getFont(),
             appStyle.getTextColor(),
             htmlText
@@ -55,12 +58,14 @@ public class Style implements AppStyle {
      *
      * @return the HTML string which body contains {@code htmlText} and
      * application text style
+     *
+     * @see StyledText
      */
     public static String wrapDialogTextInHTML(
         AppStyle appStyle,
         String htmlText
     ) {
-        return wrapTextInHTML(
+        return StyledText.toHtml(
             appStyle.getFont(),
             appStyle.getSecondaryTextColor(),
             htmlText
@@ -170,22 +175,4 @@ public class Style implements AppStyle {
     public Color getErrorTextColor() {
         return errorTextColor;
     }
-
-    private static String wrapTextInHTML(
-        Font font,
-        Color color,
-        String htmlText
-    ) {
-        final String fontFamily = font.getFamily();
-        final int fontSize = font.getSize();
-        final int r = color.getRed();
-        final int g = color.getGreen();
-        final int b = color.getBlue();
-        final String textColor = "rgb(" + r + "," + g + "," + b + ")";
-        final String css =
-            "font-family:" + fontFamily + ";font-size:" + fontSize + ";" +
-            "color:" + textColor + ";";
-
-        return "<html><body style='" + css + "'>" + htmlText + "</body></html>";
-    }
 }
@@ -0,0 +1,362 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.ui.style;
+
+import javax.swing.*;
+import javax.swing.plaf.basic.BasicHTML;
+import javax.swing.text.*;
+import java.awt.*;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Styled text for the labels. Plain text with a single style, which is the
+ * common case, never goes through HTML, the label just paints it with its
+ * font and color. The rest of the text is rendered by the Swing HTML engine,
+ * which is the slowest path to render text, so the parsed documents are cached
+ * by text and style, and each text is parsed once for all the labels showing
+ * it. Each label gets a view of its own over the shared document, since a view
+ * is bound to its parent and host component.
+ * <p>
+ * A text is plain if it's not an HTML document, that is, it doesn't start with
+ * the {@code <html>} tag, and it has no line breaks. A text with line breaks
+ * is rendered literally, with its line breaks as new lines, and an HTML
+ * document is rendered as it is.
+ * <p>
+ * The views must be created and used from the EDT, and {@link #toHtml(Font, Color, String)}
+ * can be used from any thread.
+ *
+ * @author Tobias Briones
+ * @see engineer.mathsoftware.jdesk.ui.view.TextLabel#setStyledText(String)
+ */
+public final class StyledText {
+    /**
+     * Maximum number of parsed documents that are cached.
+     */
+    public static final int CACHE_SIZE = 256;
+    private static final int STYLE_CACHE_SIZE = 32;
+    private static final Map<Key, Parsed> documents = new LruMap<>(CACHE_SIZE);
+    private static final Map<Key, String> bodyTags = new LruMap<>(STYLE_CACHE_SIZE);
+
+    /**
+     * Returns {@code true} if and only if the text is not an HTML document and
+     * has no line breaks, so it can be rendered without HTML.
+     *
+     * @param text text
+     *
+     * @return {@code true} if and only if the text is plain
+     */
+    public static boolean isPlain(String text) {
+        if (text == null) {
+            return true;
+        }
+        if (BasicHTML.isHTMLString(text)) {
+            return false;
+        }
+        return text.indexOf('\n') == -1 && text.indexOf('\r') == -1;
+    }
+
+    /**
+     * Returns the text wrapped into HTML with the given style. The text is
+     * inserted inside the body tag, and the body tag of each style is built
+     * once.
+     *
+     * @param font     text font
+     * @param color    text color, the alpha value is not taken into account
+     * @param htmlText HTML text
+     *
+     * @return the HTML string which body contains {@code htmlText} with the
+     * given style
+     */
+    public static String toHtml(Font font, Color color, String htmlText) {
+        final Key key = new Key(font, color, null);
+        String bodyTag;
+
+        synchronized (bodyTags) {
+            bodyTag = bodyTags.get(key);
+
+            if (bodyTag == null) {
+                bodyTag = newBodyTag(font, color);
+                bodyTags.put(key, bodyTag);
+            }
+        }
+        return bodyTag + htmlText + "</body></html>";
+    }
+
+    /**
+     * Returns a new HTML view of the text with the font and foreground of the
+     * given component, which hosts the view. The text is parsed only if it's
+     * not cached, and the view must not be shared with other components. The
+     * text must not be plain, see {@link #isPlain(String)}.
+     *
+     * @param host component showing the text
+     * @param text HTML document or text with line breaks
+     *
+     * @return a new view of the text for the component
+     */
+    public static View createView(JComponent host, String text) {
+        final Font font = host.getFont();
+        final Color color = host.getForeground();
+        final Key key = new Key(font, color, text);
+        Parsed parsed = documents.get(key);
+
+        if (parsed == null) {
+            parsed = parse(font, color, text);
+            documents.put(key, parsed);
+        }
+        final ViewFactory factory = parsed.factory;
+        final Element root = parsed.document.getDefaultRootElement();
+        return new RootView(host, factory, factory.create(root));
+    }
+
+    /**
+     * Removes all the cached documents.
+     */
+    public static void clearCache() {
+        documents.clear();
+        synchronized (bodyTags) {
+            bodyTags.clear();
+        }
+    }
+
+    private static Parsed parse(Font font, Color color, String text) {
+        // The document is shared, so it's parsed by a label of its own
+        final JLabel parser = new JLabel();
+        final String html = BasicHTML.isHTMLString(text)
+                            ? text
+                            : toHtml(font, color, toBody(text));
+
+        parser.setFont(font);
+        parser.setForeground(color);
+        final View view = BasicHTML.createHTMLView(parser, html);
+        return new Parsed(view.getDocument(), view.getViewFactory());
+    }
+
+    private static String toBody(String plainText) {
+        final StringBuilder sb = new StringBuilder(plainText.length() + 16);
+
+        for (int i = 0; i < plainText.length(); i++) {
+            final char c = plainText.charAt(i);
+
+            switch (c) {
+                case '&':
+                    sb.append("&amp;");
+                    break;
+                case '<':
+                    sb.append("&lt;");
+                    break;
+                case '>':
+                    sb.append("&gt;");
+                    break;
+                case '\r':
+                    if (i + 1 < plainText.length() && plainText.charAt(i + 1) == '\n') {
+                        i++;
+                    }
+                    sb.append("<br>");
+                    break;
+                case '\n':
+                    sb.append("<br>");
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String newBodyTag(Font font, Color color) {
+        final String textColor = "rgb(" + color.getRed() + ","
+                                 + color.getGreen() + ","
+                                 + color.getBlue() + ")";
+        final String css =
+            "font-family:" + font.getFamily() + ";font-size:" + font.getSize() + ";" +
+            "color:" + textColor + ";";
+
+        return "<html><body style='" + css + "'>";
+    }
+
+    private static final class Parsed {
+        private final Document document;
+        private final ViewFactory factory;
+
+        private Parsed(Document document, ViewFactory factory) {
+            this.document = document;
+            this.factory = factory;
+        }
+    }
+
+    // Root of the views of a component, like the one of BasicHTML
+    private static final class RootView extends View {
+        private final JComponent host;
+        private final ViewFactory factory;
+        private final View view;
+        private int width;
+
+        private RootView(JComponent host, ViewFactory factory, View view) {
+            super(null);
+            this.host = host;
+            this.factory = factory;
+            this.view = view;
+            this.width = 0;
+
+            view.setParent(this);
+            setSize(
+                view.getPreferredSpan(X_AXIS),
+                view.getPreferredSpan(Y_AXIS)
+            );
+        }
+
+        @Override
+        public AttributeSet getAttributes() {
+            return null;
+        }
+
+        @Override
+        public float getPreferredSpan(int axis) {
+            if (axis == X_AXIS) {
+                return width;
+            }
+            return view.getPreferredSpan(axis);
+        }
+
+        @Override
+        public float getMinimumSpan(int axis) {
+            return view.getMinimumSpan(axis);
+        }
+
+        @Override
+        public float getMaximumSpan(int axis) {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        public void preferenceChanged(View child, boolean width, boolean height) {
+            host.revalidate();
+            host.repaint();
+        }
+
+        @Override
+        public float getAlignment(int axis) {
+            return view.getAlignment(axis);
+        }
+
+        @Override
+        public void paint(Graphics g, Shape allocation) {
+            final Rectangle alloc = allocation.getBounds();
+
+            view.setSize(alloc.width, alloc.height);
+            view.paint(g, allocation);
+        }
+
+        @Override
+        public void setParent(View parent) {
+            throw new UnsupportedOperationException("Can't set parent on root view");
+        }
+
+        @Override
+        public int getViewCount() {
+            return 1;
+        }
+
+        @Override
+        public View getView(int n) {
+            return view;
+        }
+
+        @Override
+        public Shape modelToView(int pos, Shape a, Position.Bias b)
+            throws BadLocationException {
+            return view.modelToView(pos, a, b);
+        }
+
+        @Override
+        public Shape modelToView(
+            int p0,
+            Position.Bias b0,
+            int p1,
+            Position.Bias b1,
+            Shape a
+        ) throws BadLocationException {
+            return view.modelToView(p0, b0, p1, b1, a);
+        }
+
+        @Override
+        public int viewToModel(float x, float y, Shape a, Position.Bias[] bias) {
+            return view.viewToModel(x, y, a, bias);
+        }
+
+        @Override
+        public Document getDocument() {
+            return view.getDocument();
+        }
+
+        @Override
+        public int getStartOffset() {
+            return view.getStartOffset();
+        }
+
+        @Override
+        public int getEndOffset() {
+            return view.getEndOffset();
+        }
+
+        @Override
+        public Element getElement() {
+            return view.getElement();
+        }
+
+        @Override
+        public void setSize(float width, float height) {
+            this.width = (int) width;
+            view.setSize(width, height);
+        }
+
+        @Override
+        public Container getContainer() {
+            return host;
+        }
+
+        @Override
+        public ViewFactory getViewFactory() {
+            return factory;
+        }
+    }
+
+    private static final class Key {
+        private final Font font;
+        private final Color color;
+        private final String text;
+        private final int hash;
+
+        private Key(Font font, Color color, String text) {
+            this.font = font;
+            this.color = color;
+            this.text = text;
+            this.hash = Objects.hash(font, color, text);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return hash == key.hash
+                   && Objects.equals(text, key.text)
+                   && font.equals(key.font)
+                   && color.equals(key.color);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private StyledText() {}
+}
@@ -0,0 +1,299 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.ui.style;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Text measurement of a font, with the same metrics the labels use to paint
+ * it. The instances are cached by font, and each one caches the advances of
+ * the Latin-1 glyphs, so measuring a text doesn't go through the font strike
+ * again. The text that can't be measured from the cached advances, like text
+ * out of Latin-1 or with font layout attributes, is measured by the font
+ * metrics.
+ * <p>
+ * It computes the ellipsis and the wrapping of a text by its width in pixels,
+ * and the size of the wrapped text, so the layouts don't have to measure the
+ * text on their own.
+ * <p>
+ * It must be used from the EDT.
+ *
+ * @author Tobias Briones
+ */
+public final class TextMetrics {
+    /**
+     * Dots appended to the text cut by {@link #getEllipsisText(String, int)}.
+     */
+    public static final String ELLIPSIS = "...";
+    private static final int CACHE_SIZE = 32;
+    private static final int ADVANCES_SIZE = 256;
+    private static final Map<Font, TextMetrics> metrics =
+        new LruMap<>(CACHE_SIZE);
+    // Gives the same font metrics as the labels, with their text antialiasing
+    private static JLabel host = null;
+
+    /**
+     * Returns the text metrics of the given font.
+     *
+     * @param font font
+     *
+     * @return the text metrics of the font
+     */
+    public static TextMetrics of(Font font) {
+        if (font == null) {
+            throw new NullPointerException("Font is null");
+        }
+        TextMetrics textMetrics = metrics.get(font);
+
+        if (textMetrics == null) {
+            if (host == null) {
+                host = new JLabel();
+            }
+            textMetrics = new TextMetrics(host.getFontMetrics(font));
+            metrics.put(font, textMetrics);
+        }
+        return textMetrics;
+    }
+
+    /**
+     * Returns the text metrics of the app font.
+     *
+     * @param appStyle app style
+     *
+     * @return the text metrics of {@link AppStyle#getFont()}
+     */
+    public static TextMetrics of(AppStyle appStyle) {
+        return of(appStyle.getFont());
+    }
+
+    /**
+     * Removes all the cached metrics, it must be called when the desktop text
+     * antialiasing changes.
+     */
+    public static void clearCache() {
+        metrics.clear();
+        host = null;
+    }
+
+    private final FontMetrics fontMetrics;
+    private final float[] advances;
+    private final boolean hasLayoutAttributes;
+    private final int ellipsisWidth;
+
+    private TextMetrics(FontMetrics fontMetrics) {
+        this.fontMetrics = fontMetrics;
+        this.advances = new float[ADVANCES_SIZE];
+        this.hasLayoutAttributes = fontMetrics.getFont().hasLayoutAttributes();
+
+        final Font font = fontMetrics.getFont();
+        final FontRenderContext frc = fontMetrics.getFontRenderContext();
+        final char[] chars = new char[ADVANCES_SIZE];
+
+        for (int i = 0; i < ADVANCES_SIZE; i++) {
+            chars[i] = (char) i;
+        }
+        for (int i = 0; i < ADVANCES_SIZE; i++) {
+            advances[i] = (float) font.getStringBounds(chars, i, i + 1, frc)
+                                      .getWidth();
+        }
+        this.ellipsisWidth = getWidth(ELLIPSIS);
+    }
+
+    /**
+     * Returns the font metrics.
+     *
+     * @return the font metrics
+     */
+    public FontMetrics getFontMetrics() {
+        return fontMetrics;
+    }
+
+    /**
+     * Returns the height of a line of text.
+     *
+     * @return the height of a line of text
+     */
+    public int getLineHeight() {
+        return fontMetrics.getHeight();
+    }
+
+    /**
+     * Returns the average width of the lowercase Latin letters, it's used to
+     * size views by a number of characters.
+     *
+     * @return the average width of a character
+     */
+    public int getAverageCharWidth() {
+        float width = 0.0f;
+
+        for (char c = 'a'; c <= 'z'; c++) {
+            width += advances[c];
+        }
+        return Math.round(width / ('z' - 'a' + 1));
+    }
+
+    /**
+     * Returns the width in pixels of the text.
+     *
+     * @param text text
+     *
+     * @return the width of the text
+     */
+    public int getWidth(String text) {
+        return getWidth(text, 0, text.length());
+    }
+
+    /**
+     * Returns the text cut to fit into the given width with the ellipsis dots
+     * appended. If the text fits, it's returned as it is, and if not even the
+     * ellipsis fits, the empty string is returned.
+     *
+     * @param text     text
+     * @param maxWidth maximum width in pixels
+     *
+     * @return the text within the given width and with ellipsis if needed
+     */
+    public String getEllipsisText(String text, int maxWidth) {
+        if (getWidth(text) <= maxWidth) {
+            return text;
+        }
+        if (ellipsisWidth > maxWidth) {
+            return "";
+        }
+        final int end = fitText(text, 0, text.length(), maxWidth - ellipsisWidth);
+        return text.substring(0, end) + ELLIPSIS;
+    }
+
+    /**
+     * Wraps the text into lines that fit into the given width. The text is
+     * wrapped at the spaces and line breaks, and a word longer than the width
+     * is wrapped at the last character that fits. If the width is not
+     * positive, the text is only wrapped at the line breaks.
+     *
+     * @param text     text
+     * @param maxWidth maximum width in pixels
+     *
+     * @return the lines of the wrapped text
+     */
+    public List<String> wrap(String text, int maxWidth) {
+        final List<String> lines = new ArrayList<>();
+        int start = 0;
+
+        for (int i = 0; i <= text.length(); i++) {
+            if (i == text.length() || text.charAt(i) == '\n') {
+                final int end = i > start && text.charAt(i - 1) == '\r'
+                                ? i - 1
+                                : i;
+
+                wrapLine(text, start, end, maxWidth, lines);
+                start = i + 1;
+            }
+        }
+        return Collections.unmodifiableList(lines);
+    }
+
+    /**
+     * Returns the size of the text wrapped into the given width, see {@link
+     * #wrap(String, int)}.
+     *
+     * @param text     text
+     * @param maxWidth maximum width in pixels
+     *
+     * @return the size of the wrapped text
+     */
+    public Dimension getPreferredSize(String text, int maxWidth) {
+        final List<String> lines = wrap(text, maxWidth);
+        int width = 0;
+
+        for (String line : lines) {
+            width = Math.max(width, getWidth(line));
+        }
+        return new Dimension(width, lines.size() * getLineHeight());
+    }
+
+    private int getWidth(String text, int start, int end) {
+        if (hasLayoutAttributes) {
+            return fontMetrics.stringWidth(text.substring(start, end));
+        }
+        // Sums the advances as floats and rounds once, like the font metrics
+        float width = 0.0f;
+
+        for (int i = start; i < end; i++) {
+            final char c = text.charAt(i);
+
+            if (c >= ADVANCES_SIZE) {
+                return fontMetrics.stringWidth(text.substring(start, end));
+            }
+            width += advances[c];
+        }
+        return (int) (0.5f + width);
+    }
+
+    private int fitText(String text, int start, int end, int maxWidth) {
+        // Binary search of the longest prefix that fits
+        int low = start;
+        int high = end;
+
+        while (low < high) {
+            final int mid = (low + high + 1) >>> 1;
+
+            if (getWidth(text, start, mid) <= maxWidth) {
+                low = mid;
+            }
+            else {
+                high = mid - 1;
+            }
+        }
+        if (low > start && low < end && Character.isHighSurrogate(text.charAt(low - 1))) {
+            low--;
+        }
+        return low;
+    }
+
+    private void wrapLine(
+        String text,
+        int start,
+        int end,
+        int maxWidth,
+        List<String> lines
+    ) {
+        if (maxWidth <= 0) {
+            lines.add(text.substring(start, end));
+            return;
+        }
+        final int firstLine = lines.size();
+
+        while (getWidth(text, start, end) > maxWidth) {
+            int cut = fitText(text, start, end, maxWidth);
+            int next;
+
+            if (cut == start) {
+                // Not even a character fits, it takes one anyway
+                cut = text.offsetByCodePoints(start, 1);
+            }
+            final int space = text.lastIndexOf(' ', cut);
+
+            if (space > start) {
+                next = space + 1;
+                cut = space;
+            }
+            else {
+                next = cut;
+            }
+            lines.add(text.substring(start, cut));
+            start = next;
+        }
+        // An empty line is kept, but not the empty rest of a wrapped line
+        if (start < end || lines.size() == firstLine) {
+            lines.add(text.substring(start, end));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.ui.view;
+
+import engineer.mathsoftware.jdesk.work.StreamWorker;
+import engineer.mathsoftware.jdesk.work.WorkRunnableListener;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * List model that appends items in batches, firing a single event per batch.
+ * It's a {@link WorkRunnableListener}, so it can receive the chunks of items
+ * of a {@link StreamWorker} directly.
+ *
+ * @param <E> type of the items
+ *
+ * @author Tobias Briones
+ * @see ListPane
+ */
+public class AppendableListModel<E> extends AbstractListModel<E> implements WorkRunnableListener<E> {
+    private static final long serialVersionUID = 3017584930297946523L;
+    private final ArrayList<E> items;
+
+    /**
+     * Default constructor for AppendableListModel.
+     */
+    public AppendableListModel() {
+        super();
+        this.items = new ArrayList<>();
+    }
+
+    @Override
+    public int getSize() {
+        return items.size();
+    }
+
+    @Override
+    public E getElementAt(int index) {
+        return items.get(index);
+    }
+
+    /**
+     * Appends an item.
+     *
+     * @param item item to append
+     */
+    public void add(E item) {
+        items.add(item);
+        fireIntervalAdded(this, items.size() - 1, items.size() - 1);
+    }
+
+    /**
+     * Appends the items, firing a single interval added event.
+     *
+     * @param newItems items to append
+     */
+    public void addAll(List<? extends E> newItems) {
+        if (newItems.isEmpty()) {
+            return;
+        }
+        final int first = items.size();
+
+        items.addAll(newItems);
+        fireIntervalAdded(this, first, items.size() - 1);
+    }
+
+    /**
+     * Removes all the items.
+     */
+    public void clear() {
+        if (items.isEmpty()) {
+            return;
+        }
+        final int last = items.size() - 1;
+
+        items.clear();
+        fireIntervalRemoved(this, 0, last);
+    }
+
+    @Override
+    public void update(List<E> updates) {
+        addAll(updates);
+    }
+}
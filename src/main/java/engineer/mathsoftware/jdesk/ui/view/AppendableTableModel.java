@@ -0,0 +1,126 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.ui.view;
+
+import engineer.mathsoftware.jdesk.work.StreamWorker;
+import engineer.mathsoftware.jdesk.work.WorkRunnableListener;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Table model that appends rows in batches, firing a single event per batch.
+ * The rows are kept as they are, and the cell values are read from them only
+ * when the table renders them, so the rows are not copied into a table
+ * structure. It's a {@link WorkRunnableListener}, so it can receive the chunks
+ * of rows of a {@link StreamWorker} directly.
+ *
+ * @param <E> type of the rows
+ *
+ * @author Tobias Briones
+ * @see Table
+ */
+public class AppendableTableModel<E> extends AbstractTableModel implements WorkRunnableListener<E> {
+    /**
+     * Reads the value of a column from a row.
+     *
+     * @param <E> type of the rows
+     */
+    @FunctionalInterface
+    public interface ColumnValue<E> {
+        /**
+         * Returns the value of the given column of the row.
+         *
+         * @param row    row
+         * @param column column index
+         *
+         * @return the value of the cell
+         */
+        Object get(E row, int column);
+    }
+
+    private static final long serialVersionUID = -1950637004520848215L;
+    private final String[] columnNames;
+    private final transient ColumnValue<E> columnValue;
+    private final ArrayList<E> rows;
+
+    /**
+     * Constructor for AppendableTableModel.
+     *
+     * @param columnNames names of the columns
+     * @param columnValue reads the value of a column from a row
+     */
+    public AppendableTableModel(String[] columnNames, ColumnValue<E> columnValue) {
+        super();
+        this.columnNames = columnNames.clone();
+        this.columnValue = columnValue;
+        this.rows = new ArrayList<>();
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        return columnValue.get(rows.get(rowIndex), columnIndex);
+    }
+
+    /**
+     * Returns the row at the given index.
+     *
+     * @param rowIndex row index
+     *
+     * @return the row at the given index
+     */
+    public E getRow(int rowIndex) {
+        return rows.get(rowIndex);
+    }
+
+    /**
+     * Appends the rows, firing a single rows inserted event.
+     *
+     * @param newRows rows to append
+     */
+    public void addAll(List<? extends E> newRows) {
+        if (newRows.isEmpty()) {
+            return;
+        }
+        final int first = rows.size();
+
+        rows.addAll(newRows);
+        fireTableRowsInserted(first, rows.size() - 1);
+    }
+
+    /**
+     * Removes all the rows.
+     */
+    public void clear() {
+        if (rows.isEmpty()) {
+            return;
+        }
+        final int last = rows.size() - 1;
+
+        rows.clear();
+        fireTableRowsDeleted(0, last);
+    }
+
+    @Override
+    public void update(List<E> updates) {
+        addAll(updates);
+    }
+}
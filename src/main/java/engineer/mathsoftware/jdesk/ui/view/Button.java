@@ -5,6 +5,7 @@
 package engineer.mathsoftware.jdesk.ui.view;
 
 import engineer.mathsoftware.jdesk.WindowContext;
+import engineer.mathsoftware.jdesk.resources.Resources;
 import engineer.mathsoftware.jdesk.resources.StringResourceId;
 import engineer.mathsoftware.jdesk.ui.style.AppStyle;
 
@@ -178,7 +179,8 @@ public class Button extends JButton implements TextIdClickView {
     }
 
     public final void setBold() {
-        setFont(getFont().deriveFont(Font.BOLD));
+        final Font font = getFont();
+        setFont(Resources.deriveFont(font, Font.BOLD, font.getSize2D()));
     }
 
     @Override
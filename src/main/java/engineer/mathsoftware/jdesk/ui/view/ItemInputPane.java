@@ -5,6 +5,7 @@
 package engineer.mathsoftware.jdesk.ui.view;
 
 import engineer.mathsoftware.jdesk.WindowContext;
+import engineer.mathsoftware.jdesk.ui.style.TextMetrics;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
@@ -227,6 +228,7 @@ public class ItemInputPane extends engineer.mathsoftware.jdesk.ui.view.Panel imp
 
     static final class ItemView extends Panel implements MouseListener {
         private static final long serialVersionUID = 1391246170951661932L;
+        private static final int MAX_TEXT_CHARS = 25;
         private final Color backgroundColor;
         private final Color hoverColor;
 
@@ -239,6 +241,9 @@ public class ItemInputPane extends engineer.mathsoftware.jdesk.ui.view.Panel imp
             this.backgroundColor = context.getAppStyle()
                                           .getButtonBackgroundColor();
             this.hoverColor = context.getAppStyle().getItemHoverColor();
+            final TextMetrics metrics = TextMetrics.of(context.getAppStyle());
+            final int maxTextWidth =
+                MAX_TEXT_CHARS * metrics.getAverageCharWidth();
             final TextLabel closeLabel = new TextLabel(context, "x");
             final MouseListener l = new MouseAdapter() {
                 @Override
@@ -259,7 +264,7 @@ public class ItemInputPane extends engineer.mathsoftware.jdesk.ui.view.Panel imp
             add(
                 new TextLabel(
                     context,
-                    TextLabel.getEllipsisText(text, 25)
+                    metrics.getEllipsisText(text, maxTextWidth)
                 ),
                 BorderLayout.WEST
             );
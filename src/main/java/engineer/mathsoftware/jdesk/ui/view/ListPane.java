@@ -5,6 +5,7 @@
 package engineer.mathsoftware.jdesk.ui.view;
 
 import engineer.mathsoftware.jdesk.WindowContext;
+import engineer.mathsoftware.jdesk.ui.style.TextMetrics;
 
 import javax.swing.*;
 import java.awt.*;
@@ -21,7 +22,8 @@ public class ListPane<E> extends JList<E> {
     private static final long serialVersionUID = -7494601406358051974L;
 
     /**
-     * Default cell render for {@link ListPane}
+     * Default cell render for {@link ListPane}, the text that doesn't fit into
+     * the width of the list is cut with ellipsis.
      */
     public static final class DefaultCellRender extends Panel implements ListCellRenderer<Object> {
         private static final long serialVersionUID = -5394395866485914727L;
@@ -61,7 +63,7 @@ public class ListPane<E> extends JList<E> {
             boolean isSelected,
             boolean cellHasFocus
         ) {
-            label.setText(value.toString());
+            label.setText(getCellText(list, value.toString()));
             if (isSelected) {
                 setBackground(pressedColor);
             }
@@ -70,6 +72,22 @@ public class ListPane<E> extends JList<E> {
             }
             return this;
         }
+
+        private String getCellText(JList<?> list, String text) {
+            // Before the list is laid out the cell takes the whole text
+            if (list.getWidth() <= 0) {
+                return text;
+            }
+            final Insets insets = getInsets();
+            final int hgap = ((FlowLayout) getLayout()).getHgap();
+            final int maxWidth = list.getWidth()
+                                 - insets.left
+                                 - insets.right
+                                 - 2 * hgap;
+
+            return TextMetrics.of(label.getFont())
+                              .getEllipsisText(text, maxWidth);
+        }
     }
 
     /**
@@ -6,7 +6,9 @@ package engineer.mathsoftware.jdesk.ui.view;
 
 import engineer.mathsoftware.jdesk.WindowContext;
 import engineer.mathsoftware.jdesk.ui.view.menu.ListPopupMenu;
+import engineer.mathsoftware.jdesk.work.DebouncedWorker;
 import engineer.mathsoftware.jdesk.work.LoadingView;
+import engineer.mathsoftware.jdesk.work.WorkCallback;
 
 import javax.swing.*;
 import javax.swing.event.DocumentEvent;
@@ -14,6 +16,7 @@ import javax.swing.event.DocumentListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -40,10 +43,34 @@ public class SelectionInputPane<E> extends Panel implements LoadingView {
         void onItemsRequested(String search);
     }
 
+    /**
+     * Search of the items to display as the user inputText, it runs on
+     * background. It can poll {@link
+     * engineer.mathsoftware.jdesk.work.CancellationToken#current()} to stop
+     * when the search is superseded by a newer one.
+     *
+     * @param <E> type of the items
+     */
+    @FunctionalInterface
+    public interface ItemsSearch<E> {
+        /**
+         * Searches the items to display for the search the user is entering.
+         *
+         * @param search user search
+         *
+         * @return the items to display
+         *
+         * @throws Exception if something wrong happened when searching
+         */
+        List<E> search(String search) throws Exception;
+    }
+
     private final ItemInputPane selectedInputs;
     private final ListPopupMenu popup;
+    private final transient DebouncedWorker<List<E>> searchWorker;
     private boolean isSearching;
     private transient ItemsRequestListener l;
+    private transient ItemsSearch<E> search;
 
     /**
      * Creates a pane with and dynamical inputText to let the user select
@@ -57,8 +84,10 @@ public class SelectionInputPane<E> extends Panel implements LoadingView {
         super(context);
         this.selectedInputs = new ItemInputPane(context, rows, columns);
         this.popup = new ListPopupMenu(context);
+        this.searchWorker = new DebouncedWorker<>(this, new SearchCallback());
         this.isSearching = false;
         this.l = null;
+        this.search = null;
         final ListPopupMenu.ItemSelectedListener l = (item, index) -> {
             selectedInputs.addInput(item);
             popup.setVisible(false);
@@ -122,16 +151,63 @@ public class SelectionInputPane<E> extends Panel implements LoadingView {
         this.l = l;
     }
 
+    /**
+     * Sets the search of the items to display as the user inputText. The
+     * search runs on background after the user stops typing for the search
+     * delay, a newer search cancels the previous one, and only the results of
+     * the newest search are displayed. When it's set, the {@link
+     * ItemsRequestListener} is not notified.
+     *
+     * @param search items search, or {@code null} to remove it
+     *
+     * @see #setSearchDelay(int)
+     */
+    public void setItemsSearch(ItemsSearch<E> search) {
+        this.search = search;
+
+        searchWorker.cancel();
+    }
+
+    /**
+     * Sets the time to wait after the user stops typing before running the
+     * {@link ItemsSearch}. By default, it's {@link
+     * DebouncedWorker#DEFAULT_DELAY}.
+     *
+     * @param delayMillis search delay in milliseconds
+     */
+    public void setSearchDelay(int delayMillis) {
+        searchWorker.setDelay(delayMillis);
+    }
+
+    /**
+     * Sets the list of searched items for the given search. The items are
+     * ignored if the search is not the current user input anymore, so stale
+     * results never overwrite fresh ones.
+     *
+     * @param search search the items were requested for
+     * @param items  items to display
+     *
+     * @see ItemsRequestListener#onItemsRequested(String)
+     */
+    public void setInputText(String search, List<E> items) {
+        if (search.equals(selectedInputs.getInputText().getText())) {
+            setInputText(items);
+        }
+    }
+
     /**
      * Sets the list of searched items which the user will choose as inputText.
      *
      * @param items items to display
      */
     public void setInputText(List<E> items) {
-        popup.clear();
+        final List<String> texts = new ArrayList<>(items.size());
+
         for (E item : items) {
-            popup.addItem(item.toString());
+            texts.add(item.toString());
         }
+        popup.clear();
+        popup.addItems(texts);
         popup.setPreferredSize(getPreferredSize());
         popup.show(selectedInputs, 0, getHeight() - 10);
         popup.setVisible(true);
@@ -154,15 +230,34 @@ public class SelectionInputPane<E> extends Panel implements LoadingView {
     }
 
     private void updateItemsRequest() {
-        if (l != null && !selectedInputs.getInputText()
-                                        .getText()
-                                        .trim()
-                                        .isEmpty()) {
-            l.onItemsRequested(selectedInputs.getInputText().getText());
+        final String text = selectedInputs.getInputText().getText();
+
+        if (text.trim().isEmpty()) {
+            searchWorker.cancel();
+            popup.setVisible(false);
+        }
+        else if (search != null) {
+            final ItemsSearch<E> s = search;
+            searchWorker.request(() -> s.search(text));
+        }
+        else if (l != null) {
+            l.onItemsRequested(text);
         }
-        else if (selectedInputs.getInputText().getText().trim().isEmpty()) {
+    }
+
+    private final class SearchCallback implements WorkCallback<List<E>> {
+        @Override
+        public void workFinished(List<E> result) {
+            setInputText(result);
+        }
+
+        @Override
+        public void workFailed(Exception exception) {
             popup.setVisible(false);
         }
+
+        @Override
+        public void workCancelled() {}
     }
 
     private static final class InputListener implements DocumentListener {
@@ -5,11 +5,16 @@
 package engineer.mathsoftware.jdesk.ui.view;
 
 import engineer.mathsoftware.jdesk.WindowContext;
+import engineer.mathsoftware.jdesk.resources.Resources;
 import engineer.mathsoftware.jdesk.resources.StringResourceId;
 import engineer.mathsoftware.jdesk.ui.style.AppStyle;
+import engineer.mathsoftware.jdesk.ui.style.StyledText;
+import engineer.mathsoftware.jdesk.ui.style.TextMetrics;
 import engineer.mathsoftware.jdesk.ui.style.TextStyle;
 
 import javax.swing.*;
+import javax.swing.plaf.basic.BasicHTML;
+import javax.swing.text.View;
 import java.awt.*;
 
 /**
@@ -19,6 +24,8 @@ import java.awt.*;
  */
 public class TextLabel extends JLabel {
     private static final long serialVersionUID = 1102069398706966479L;
+    private static final String HTML_DISABLE_KEY = "html.disable";
+    private String styledText;
 
     /**
      * Returns the string within the given bounds. If {@code maxLength} is
@@ -34,6 +41,8 @@ public class TextLabel extends JLabel {
      * @param maxLength maximum length
      *
      * @return the string within the given bounds and with ellipsis if needed
+     *
+     * @see TextMetrics#getEllipsisText(String, int)
      */
     public static String getEllipsisText(String text, int maxLength) {
         if (maxLength <= 3) {
@@ -176,6 +185,58 @@ public class TextLabel extends JLabel {
         config(context.getAppStyle());
     }
 
+    /**
+     * Sets a text that may have line breaks or be an HTML document, which
+     * starts with the {@code <html>} tag. Plain text is set as it is, and the
+     * rest of the text is rendered with the label font and color by an HTML
+     * view over a document parsed once for all the labels with the same text
+     * and style, see {@link StyledText}. Only an HTML document is parsed as markup.
+     *
+     * @param text text or HTML document
+     */
+    public void setStyledText(String text) {
+        if (StyledText.isPlain(text)) {
+            styledText = null;
+
+            putClientProperty(HTML_DISABLE_KEY, null);
+            setText(text);
+            return;
+        }
+        styledText = text;
+
+        putClientProperty(HTML_DISABLE_KEY, Boolean.TRUE);
+        setText(text);
+        installStyledView();
+    }
+
+    @Override
+    public void setText(String text) {
+        if (styledText != null && !styledText.equals(text)) {
+            styledText = null;
+
+            putClientProperty(HTML_DISABLE_KEY, null);
+        }
+        super.setText(text);
+    }
+
+    @Override
+    public void setFont(Font font) {
+        super.setFont(font);
+        installStyledView();
+    }
+
+    @Override
+    public void setForeground(Color fg) {
+        super.setForeground(fg);
+        installStyledView();
+    }
+
+    @Override
+    public void updateUI() {
+        super.updateUI();
+        installStyledView();
+    }
+
     /**
      * Sets the style for the label's text.
      *
@@ -198,15 +259,27 @@ public class TextLabel extends JLabel {
     private Font getFont(TextStyle textStyle, int size) {
         switch (textStyle) {
             case NORMAL:
-                return getFont().deriveFont(Font.PLAIN, (float) size);
+                return Resources.deriveFont(getFont(), Font.PLAIN, size);
 
             case BOLD:
-                return getFont().deriveFont(Font.BOLD, (float) size);
+                return Resources.deriveFont(getFont(), Font.BOLD, size);
 
             case ITALIC:
-                return getFont().deriveFont(Font.ITALIC, (float) size);
+                return Resources.deriveFont(getFont(), Font.ITALIC, size);
         }
-        return getFont().deriveFont(Font.PLAIN, (float) size);
+        return Resources.deriveFont(getFont(), Font.PLAIN, size);
+    }
+
+    private void installStyledView() {
+        // It's called by the JLabel constructor before the field is set
+        if (styledText == null) {
+            return;
+        }
+        final View view = StyledText.createView(this, styledText);
+
+        putClientProperty(BasicHTML.propertyKey, view);
+        revalidate();
+        repaint();
     }
 
     private void config(AppStyle appStyle) {
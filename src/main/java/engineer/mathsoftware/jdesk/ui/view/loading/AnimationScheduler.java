@@ -0,0 +1,221 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.ui.view.loading;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * App-wide clock that drives every running animation from a single timer, so
+ * a screen with many loading views wakes the EDT once per frame instead of
+ * once per view. Each animation has its own frame period, and its frames are
+ * paced by {@link System#nanoTime()}, so they don't drift when a tick comes
+ * late, and the frames missed while the EDT was busy are dropped instead of
+ * played in a burst. The animations whose component is not showing are
+ * skipped, and the timer stops when there are no animations or the scheduler
+ * is paused, for example while the app is in low-power mode.
+ * <p>
+ * It must be used from the EDT.
+ *
+ * @author Tobias Briones
+ */
+public final class AnimationScheduler {
+    /**
+     * Animation driven by the scheduler.
+     */
+    @FunctionalInterface
+    public interface Animation {
+        /**
+         * Called on the EDT when a new frame of the animation is due.
+         *
+         * @param frameTime time of the frame in nanoseconds, as by {@link
+         *                  System#nanoTime()}
+         */
+        void frame(long frameTime);
+    }
+
+    /**
+     * Shortest frame period in milliseconds an animation can have.
+     */
+    public static final int MIN_FRAME_PERIOD = 16;
+    private static final List<Entry> entries = new ArrayList<>();
+    private static Timer timer = null;
+    private static long tickSlack = 0L;
+    private static boolean isPaused = false;
+
+    /**
+     * Starts driving the given animation. The first frame is due after one
+     * frame period. If the animation is already running, its frame period is
+     * updated.
+     *
+     * @param component   component the animation paints on, the animation is
+     *                    skipped while it's not showing
+     * @param framePeriod frame period in milliseconds
+     * @param animation   animation to start
+     */
+    public static void start(
+        Component component,
+        int framePeriod,
+        Animation animation
+    ) {
+        final long period = TimeUnit.MILLISECONDS.toNanos(
+            Math.max(framePeriod, MIN_FRAME_PERIOD)
+        );
+        final Entry entry = find(animation);
+
+        if (entry != null) {
+            entry.period = period;
+        }
+        else {
+            entries.add(new Entry(component, period, animation));
+        }
+        updateTimer();
+    }
+
+    /**
+     * Stops driving the given animation if it's running.
+     *
+     * @param animation animation to stop
+     */
+    public static void stop(Animation animation) {
+        final Entry entry = find(animation);
+
+        if (entry != null) {
+            entries.remove(entry);
+            updateTimer();
+        }
+    }
+
+    /**
+     * Returns {@code true} if and only if the given animation is running.
+     *
+     * @param animation animation
+     *
+     * @return {@code true} if and only if the animation is running
+     */
+    public static boolean isRunning(Animation animation) {
+        return find(animation) != null;
+    }
+
+    /**
+     * Pauses or resumes all the animations. While it's paused, the animations
+     * can be started and stopped but no frame is rendered. When it's resumed,
+     * the animations continue from their current frame.
+     *
+     * @param isPaused {@code true} to pause the animations
+     */
+    public static void setPaused(boolean isPaused) {
+        if (AnimationScheduler.isPaused == isPaused) {
+            return;
+        }
+        AnimationScheduler.isPaused = isPaused;
+
+        if (!isPaused) {
+            final long now = System.nanoTime();
+
+            for (Entry entry : entries) {
+                entry.nextFrame = now;
+            }
+        }
+        updateTimer();
+    }
+
+    /**
+     * Returns {@code true} if and only if the animations are paused.
+     *
+     * @return {@code true} if and only if the animations are paused
+     */
+    public static boolean isPaused() {
+        return isPaused;
+    }
+
+    /**
+     * Returns the number of running animations.
+     *
+     * @return the number of running animations
+     */
+    public static int getAnimationCount() {
+        return entries.size();
+    }
+
+    private static Entry find(Animation animation) {
+        for (Entry entry : entries) {
+            if (entry.animation == animation) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private static void updateTimer() {
+        if (entries.isEmpty() || isPaused) {
+            if (timer != null) {
+                timer.stop();
+                timer = null;
+            }
+            return;
+        }
+        long minPeriod = Long.MAX_VALUE;
+
+        for (Entry entry : entries) {
+            minPeriod = Math.min(minPeriod, entry.period);
+        }
+        final int delay = (int) TimeUnit.NANOSECONDS.toMillis(minPeriod);
+
+        // A tick that comes a bit early still renders the frame
+        tickSlack = minPeriod / 2L;
+
+        if (timer == null) {
+            timer = new Timer(delay, e -> tick());
+            timer.setCoalesce(true);
+            timer.start();
+        }
+        else if (timer.getDelay() != delay) {
+            timer.setDelay(delay);
+        }
+    }
+
+    private static void tick() {
+        final long now = System.nanoTime();
+
+        // Iterated by index since an animation can start or stop others
+        for (int i = 0; i < entries.size(); i++) {
+            final Entry entry = entries.get(i);
+
+            if (!entry.component.isShowing()) {
+                entry.nextFrame = now;
+                continue;
+            }
+            if (now - entry.nextFrame < -tickSlack) {
+                continue;
+            }
+            entry.nextFrame += entry.period;
+
+            if (now - entry.nextFrame >= 0L) {
+                entry.nextFrame = now + entry.period;
+            }
+            entry.animation.frame(now);
+        }
+    }
+
+    private static final class Entry {
+        private final Component component;
+        private final Animation animation;
+        private long period;
+        private long nextFrame;
+
+        private Entry(Component component, long period, Animation animation) {
+            this.component = component;
+            this.animation = animation;
+            this.period = period;
+            this.nextFrame = System.nanoTime() + period;
+        }
+    }
+
+    private AnimationScheduler() {}
+}
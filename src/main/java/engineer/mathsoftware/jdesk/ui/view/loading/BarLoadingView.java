@@ -8,11 +8,12 @@ import engineer.mathsoftware.jdesk.WindowContext;
 import engineer.mathsoftware.jdesk.ui.view.Panel;
 import engineer.mathsoftware.jdesk.work.LoadingView;
 
-import javax.swing.*;
 import java.awt.*;
 
 /**
- * Bar animated to display the loading of a background task.
+ * Bar animated to display the loading of a background task. It's opaque and
+ * each frame only repaints the part of the bar that changed, so the parent
+ * views are not painted again.
  *
  * @author Tobias Briones
  */
@@ -25,7 +26,8 @@ public final class BarLoadingView extends Panel implements LoadingView {
     private static final long serialVersionUID = 2387093602960521687L;
     private static final int TIME_INTERVAL = 33;
     private static final int HEIGHT = 1;
-    private final Timer timer;
+    private static final float NANOS_PER_MILLI = 1_000_000f;
+    private final transient AnimationScheduler.Animation animation;
     private final Color backgroundColor;
     private final Color barColor;
     private int style;
@@ -40,7 +42,7 @@ public final class BarLoadingView extends Panel implements LoadingView {
      */
     public BarLoadingView(WindowContext context) {
         super(context);
-        this.timer = new Timer(TIME_INTERVAL, e -> repaint());
+        this.animation = this::nextFrame;
         this.backgroundColor = getBackground();
         this.barColor = context.getAppStyle().getAccentColor();
         this.style = STYLE_NORMAL;
@@ -48,6 +50,7 @@ public final class BarLoadingView extends Panel implements LoadingView {
         this.x = -1;
         this.lastTime = -1;
 
+        setOpaque(true);
         setWidth(100);
     }
 
@@ -90,26 +93,26 @@ public final class BarLoadingView extends Panel implements LoadingView {
 
     @Override
     public boolean isRunning() {
-        return timer.isRunning();
+        return AnimationScheduler.isRunning(animation);
     }
 
     @Override
     public void start() {
-        if (timer.isRunning()) {
+        if (AnimationScheduler.isRunning(animation)) {
             return;
         }
         x = 0;
-        lastTime = System.currentTimeMillis();
+        lastTime = System.nanoTime();
 
-        timer.start();
+        AnimationScheduler.start(this, TIME_INTERVAL, animation);
     }
 
     @Override
     public void end() {
-        if (!timer.isRunning()) {
+        if (!AnimationScheduler.isRunning(animation)) {
             return;
         }
-        timer.stop();
+        AnimationScheduler.stop(animation);
         x = -1;
 
         repaint();
@@ -117,15 +120,20 @@ public final class BarLoadingView extends Panel implements LoadingView {
 
     @Override
     protected void paintComponent(Graphics g) {
-        final float time = System.currentTimeMillis() - lastTime;
+        g.setColor(backgroundColor);
+        g.fillRect(0, 0, getWidth(), getHeight());
+        if (x > 0) {
+            g.setColor(barColor);
+            g.fillRect(0, 0, x, HEIGHT);
+        }
+    }
+
+    private void nextFrame(long frameTime) {
+        final float time = (frameTime - lastTime) / NANOS_PER_MILLI;
         final int width = getWidth();
+        final int oldX = x;
         int xChange;
 
-        if (x == -1) {
-            g.setColor(backgroundColor);
-            g.clearRect(0, 0, width, HEIGHT);
-            return;
-        }
         if (style == STYLE_NORMAL) {
             xChange = (int) ((time / 1000) * (speed * width));
         }
@@ -145,10 +153,14 @@ public final class BarLoadingView extends Panel implements LoadingView {
                 x = width;
             }
         }
-        g.setColor(backgroundColor);
-        g.clearRect(0, 0, width, HEIGHT);
-        g.setColor(barColor);
-        g.fillRect(0, 0, x, HEIGHT);
-        lastTime = System.currentTimeMillis();
+        lastTime = frameTime;
+
+        // Only the pixels between the old and the new end of the bar change
+        if (x > oldX) {
+            repaint(oldX, 0, x - oldX, HEIGHT);
+        }
+        else {
+            repaint(x, 0, oldX - x, HEIGHT);
+        }
     }
 }
@@ -8,7 +8,6 @@ import engineer.mathsoftware.jdesk.WindowContext;
 import engineer.mathsoftware.jdesk.ui.view.Panel;
 import engineer.mathsoftware.jdesk.work.LoadingView;
 
-import javax.swing.*;
 import java.awt.*;
 
 /**
@@ -21,8 +20,9 @@ public final class CircularCirclesLoadingView extends Panel implements LoadingVi
     private static final Dimension SIZE = new Dimension(36, 36);
     private static final int CIRCLE_SIZE = 12;
     private static final int DELAY = 100;
-    private final Timer timer;
+    private final transient AnimationScheduler.Animation animation;
     private final Color[] colors;
+    private final transient FrameCache frames;
     private int i;
 
     /**
@@ -32,19 +32,24 @@ public final class CircularCirclesLoadingView extends Panel implements LoadingVi
      */
     public CircularCirclesLoadingView(WindowContext context) {
         super(context);
-        this.timer = new Timer(DELAY, e -> repaint());
+        this.animation = frameTime -> {
+            nextFrame();
+            repaint();
+        };
         this.colors = new Color[] {
             Color.decode("#212121"), Color.decode("#1B5E20"),
             Color.decode("#0D47A1"), Color.decode("#880E4F")
         };
+        this.frames = new FrameCache(this::renderFrame);
         this.i = -1;
 
+        setOpaque(true);
         setPreferredSize(SIZE);
     }
 
     @Override
     public boolean isRunning() {
-        return timer.isRunning();
+        return AnimationScheduler.isRunning(animation);
     }
 
     @Override
@@ -55,7 +60,7 @@ public final class CircularCirclesLoadingView extends Panel implements LoadingVi
         i = 1;
 
         repaint();
-        timer.start();
+        AnimationScheduler.start(this, DELAY, animation);
     }
 
     @Override
@@ -63,7 +68,7 @@ public final class CircularCirclesLoadingView extends Panel implements LoadingVi
         if (!isRunning()) {
             return;
         }
-        timer.stop();
+        AnimationScheduler.stop(animation);
         i = -1;
 
         repaint();
@@ -87,65 +92,54 @@ public final class CircularCirclesLoadingView extends Panel implements LoadingVi
         colors[1] = color2;
         colors[2] = color3;
         colors[3] = color4;
+        frames.invalidate();
+        repaint();
     }
 
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        final Graphics2D g2 = (Graphics2D) g;
-
-        g2.setColor(getBackground());
-        g2.fillRect(0, 0, getWidth(), getHeight());
         if (i == -1) {
+            g.setColor(getBackground());
+            g.fillRect(0, 0, getWidth(), getHeight());
             return;
         }
-        g2.setRenderingHint(
-            RenderingHints.KEY_ANTIALIASING,
-            RenderingHints.VALUE_ANTIALIAS_ON
-        );
-        if (i >= colors.length) {
-            i = 0;
-        }
-        g2.setColor(colors[i++]);
+        frames.draw(this, g, i);
+    }
+
+    private void nextFrame() {
+        i = (i + 1) % colors.length;
+    }
+
+    private void renderFrame(Graphics2D g2, int frame, int width, int height) {
+        // Colors for east, south, west and north respectively
+        g2.setColor(colors[frame]);
         g2.fillOval(
-            getWidth() - CIRCLE_SIZE,
-            getHeight() / 2 - CIRCLE_SIZE / 2,
+            width - CIRCLE_SIZE,
+            height / 2 - CIRCLE_SIZE / 2,
             CIRCLE_SIZE,
             CIRCLE_SIZE
         );
-        if (i >= colors.length) {
-            i = 0;
-        }
-        g2.setColor(colors[i++]);
+        g2.setColor(colors[(frame + 1) % colors.length]);
         g2.fillOval(
-            getWidth() / 2 - CIRCLE_SIZE / 2,
-            getHeight() - CIRCLE_SIZE,
+            width / 2 - CIRCLE_SIZE / 2,
+            height - CIRCLE_SIZE,
             CIRCLE_SIZE,
             CIRCLE_SIZE
         );
-        if (i >= colors.length) {
-            i = 0;
-        }
-        g2.setColor(colors[i++]);
+        g2.setColor(colors[(frame + 2) % colors.length]);
         g2.fillOval(
             0,
-            getHeight() / 2 - CIRCLE_SIZE / 2,
+            height / 2 - CIRCLE_SIZE / 2,
             CIRCLE_SIZE,
             CIRCLE_SIZE
         );
-        if (i >= colors.length) {
-            i = 0;
-        }
-        g2.setColor(colors[i++]);
+        g2.setColor(colors[(frame + 3) % colors.length]);
         g2.fillOval(
-            getWidth() / 2 - CIRCLE_SIZE / 2,
+            width / 2 - CIRCLE_SIZE / 2,
             0,
             CIRCLE_SIZE,
             CIRCLE_SIZE
         );
-        if (i >= colors.length) {
-            i = 0;
-        }
-        i++;
     }
 }
@@ -8,11 +8,11 @@ import engineer.mathsoftware.jdesk.WindowContext;
 import engineer.mathsoftware.jdesk.ui.view.Panel;
 import engineer.mathsoftware.jdesk.work.LoadingView;
 
-import javax.swing.*;
 import java.awt.*;
 
 /**
- * Loading view made of a circular transitions.
+ * Loading view made of a circular transitions. Its frames are rendered once
+ * per transition step, so each tick paints a cached image.
  *
  * @author Tobias Briones
  */
@@ -21,7 +21,8 @@ public final class CircularTransitionLoadingView extends Panel implements Loadin
     private static final Dimension NORMAL_SIZE = new Dimension(36, 36);
     private static final Dimension BIG_SIZE = new Dimension(48, 48);
     private static final int DELAY = 33;
-    private final Timer timer;
+    private final transient AnimationScheduler.Animation animation;
+    private final transient FrameCache frames;
     private Color color;
     private int z;
     private boolean w;
@@ -33,7 +34,7 @@ public final class CircularTransitionLoadingView extends Panel implements Loadin
      */
     public CircularTransitionLoadingView(WindowContext context) {
         super(context);
-        this.timer = new Timer(DELAY, e -> {
+        this.animation = frameTime -> {
             repaint();
             w = (z < (int) -(0.38 * getWidth())) || (!(z > (int) (0.62 * getWidth())) && w);
             z = (w) ? (z + 3) : (z - 3);
@@ -44,11 +45,13 @@ public final class CircularTransitionLoadingView extends Panel implements Loadin
             else if (z < getWidth() / 2) {
                 z++;
             }
-        });
+        };
+        this.frames = new FrameCache(this::renderFrame);
         this.color = context.getAppStyle().getAccentColor();
         this.z = 0;
         this.w = true;
 
+        setOpaque(true);
         setPreferredSize(NORMAL_SIZE);
     }
 
@@ -59,11 +62,13 @@ public final class CircularTransitionLoadingView extends Panel implements Loadin
      */
     public void setColor(Color value) {
         this.color = value;
+        frames.invalidate();
+        repaint();
     }
 
     @Override
     public boolean isRunning() {
-        return timer.isRunning();
+        return AnimationScheduler.isRunning(animation);
     }
 
     @Override
@@ -75,7 +80,7 @@ public final class CircularTransitionLoadingView extends Panel implements Loadin
         w = true;
 
         repaint();
-        timer.start();
+        AnimationScheduler.start(this, DELAY, animation);
     }
 
     @Override
@@ -83,7 +88,7 @@ public final class CircularTransitionLoadingView extends Panel implements Loadin
         if (!isRunning()) {
             return;
         }
-        timer.stop();
+        AnimationScheduler.stop(animation);
         z = -1;
         w = true;
 
@@ -103,23 +108,14 @@ public final class CircularTransitionLoadingView extends Panel implements Loadin
         if (!isRunning()) {
             return;
         }
-        final Graphics2D g2 = (Graphics2D) g;
+        frames.draw(this, g, z);
+    }
 
-        if (z == -1) {
-            g2.setColor(getBackground());
-            g2.fillRect(z, z, getWidth() + z, getHeight() + z);
-            z++;
-            return;
-        }
-        g2.setRenderingHint(
-            RenderingHints.KEY_ANTIALIASING,
-            RenderingHints.VALUE_ANTIALIAS_ON
-        );
+    private void renderFrame(Graphics2D g2, int z, int width, int height) {
         g2.setColor(color);
-        g2.fillOval(0, 0, getWidth(), getHeight());
-        g2.setColor(getBackground());
-        g2.fillOval(z, z, getWidth() + z, getHeight() + z);
+        g2.fillOval(0, 0, width, height);
         g2.setColor(getBackground());
-        g2.fillOval(4, 4, getWidth() - 8, getHeight() - 8);
+        g2.fillOval(z, z, width + z, height + z);
+        g2.fillOval(4, 4, width - 8, height - 8);
     }
 }
@@ -0,0 +1,125 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.ui.view.loading;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cache of the pre-rendered frames of a loading view. Each frame is rendered
+ * once into an opaque image compatible with the screen of the view, so the
+ * image is managed by the graphics pipeline, and painting a frame is a single
+ * {@code drawImage}. The frames are rendered again when the view is resized,
+ * its background changes, it's moved to another screen, or it's invalidated
+ * because its style changed.
+ *
+ * @author Tobias Briones
+ */
+final class FrameCache {
+    /**
+     * Renders a frame of a loading view.
+     */
+    @FunctionalInterface
+    interface Renderer {
+        /**
+         * Renders the given frame. The graphics are antialiased and the
+         * background of the view is already filled.
+         *
+         * @param g      graphics of the frame image
+         * @param frame  frame to render
+         * @param width  width of the frame
+         * @param height height of the frame
+         */
+        void render(Graphics2D g, int frame, int width, int height);
+    }
+
+    private final Renderer renderer;
+    private final Map<Integer, Image> frames;
+    private int width;
+    private int height;
+    private Color background;
+    private GraphicsConfiguration gc;
+
+    FrameCache(Renderer renderer) {
+        this.renderer = renderer;
+        this.frames = new HashMap<>();
+        this.width = -1;
+        this.height = -1;
+        this.background = null;
+        this.gc = null;
+    }
+
+    /**
+     * Paints the given frame on the component, rendering it first if it's not
+     * cached.
+     *
+     * @param component component to paint on
+     * @param g         graphics of the component
+     * @param frame     frame to paint
+     */
+    void draw(Component component, Graphics g, int frame) {
+        final int w = component.getWidth();
+        final int h = component.getHeight();
+
+        if (w <= 0 || h <= 0) {
+            return;
+        }
+        if (w != width
+            || h != height
+            || !component.getBackground().equals(background)
+            || component.getGraphicsConfiguration() != gc) {
+            invalidate();
+            width = w;
+            height = h;
+            background = component.getBackground();
+            gc = component.getGraphicsConfiguration();
+        }
+        Image image = frames.get(frame);
+
+        if (image == null) {
+            image = render(frame);
+            frames.put(frame, image);
+        }
+        g.drawImage(image, 0, 0, null);
+    }
+
+    /**
+     * Discards the rendered frames, it must be called when the style of the
+     * view changes.
+     */
+    void invalidate() {
+        for (Image image : frames.values()) {
+            image.flush();
+        }
+        frames.clear();
+    }
+
+    private Image render(int frame) {
+        final BufferedImage image = gc != null
+                                    ? gc.createCompatibleImage(width, height)
+                                    : new BufferedImage(
+                                        width,
+                                        height,
+                                        BufferedImage.TYPE_INT_RGB
+                                    );
+        final Graphics2D g2 = image.createGraphics();
+
+        try {
+            g2.setColor(background);
+            g2.fillRect(0, 0, width, height);
+            g2.setRenderingHint(
+                RenderingHints.KEY_ANTIALIASING,
+                RenderingHints.VALUE_ANTIALIAS_ON
+            );
+            renderer.render(g2, frame, width, height);
+        }
+        finally {
+            g2.dispose();
+        }
+        return image;
+    }
+}
@@ -8,12 +8,14 @@ import engineer.mathsoftware.jdesk.WindowContext;
 import engineer.mathsoftware.jdesk.ui.view.Panel;
 import engineer.mathsoftware.jdesk.work.LoadingView;
 
-import javax.swing.*;
 import java.awt.*;
 import java.util.Random;
 
 /**
- * Loading view with a grid of random running little circles.
+ * Loading view with a grid of random running little circles. It has a fixed
+ * set of random frames that are rendered once, and each tick shows one of
+ * them at random. It's opaque and each tick only repaints the circles that
+ * changed.
  *
  * @author Tobias Briones
  */
@@ -24,11 +26,14 @@ public final class GridLoadingView extends Panel implements LoadingView {
     private static final int SQUARE_SIZE = 4;
     private static final int MARGIN = 4;
     private static final int DELAY_MS = 150;
+    private static final int FRAME_COUNT = 16;
     private final Color backgroundColor;
-    private final Timer timer;
+    private final transient AnimationScheduler.Animation animation;
+    private final transient FrameCache frames;
+    private final int[] masks;
     private Color color;
     private Color activatedColor;
-    private boolean clean;
+    private int frame;
 
     /**
      * Default constructor for GridLoadingView.
@@ -38,11 +43,23 @@ public final class GridLoadingView extends Panel implements LoadingView {
     public GridLoadingView(WindowContext context) {
         super(context);
         this.backgroundColor = context.getAppStyle().getWindowBackgroundColor();
-        this.timer = new Timer(DELAY_MS, e -> repaint());
+        this.animation = frameTime -> {
+            final int old = frame;
+
+            nextFrame();
+            repaintChanged(old);
+        };
+        this.frames = new FrameCache(this::renderFrame);
+        this.masks = new int[FRAME_COUNT];
         this.color = context.getAppStyle().getAccentColor().darker();
         this.activatedColor = context.getAppStyle().getAccentColor();
-        this.clean = true;
+        this.frame = -1;
 
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            // One bit per circle of the 3x3 grid
+            masks[i] = RANDOM.nextInt(1 << 9);
+        }
+        setOpaque(true);
         setPreferredSize(SIZE);
     }
 
@@ -54,6 +71,8 @@ public final class GridLoadingView extends Panel implements LoadingView {
      */
     public void setColor(Color color) {
         this.color = color;
+        frames.invalidate();
+        repaint();
     }
 
     /**
@@ -64,64 +83,103 @@ public final class GridLoadingView extends Panel implements LoadingView {
      */
     public void setActivatedColor(Color activatedColor) {
         this.activatedColor = activatedColor;
+        frames.invalidate();
+        repaint();
     }
 
     @Override
     public boolean isRunning() {
-        return timer.isRunning();
+        return AnimationScheduler.isRunning(animation);
     }
 
     @Override
     public void start() {
-        if (timer.isRunning()) {
+        if (AnimationScheduler.isRunning(animation)) {
             return;
         }
-
+        nextFrame();
         repaint();
-        timer.start();
+        AnimationScheduler.start(this, DELAY_MS, animation);
     }
 
     @Override
     public void end() {
-        if (!timer.isRunning()) {
+        if (!AnimationScheduler.isRunning(animation)) {
             return;
         }
 
-        timer.stop();
-        clean = true;
+        AnimationScheduler.stop(animation);
+        frame = -1;
 
         repaint();
     }
 
     @Override
     protected void paintComponent(Graphics g) {
-        int currentLeft;
-        int currentTop;
+        if (frame == -1) {
+            g.setColor(backgroundColor);
+            g.fillRect(0, 0, getWidth(), getHeight());
+            return;
+        }
+        frames.draw(this, g, frame);
+    }
+
+    private void nextFrame() {
+        if (frame == -1) {
+            frame = RANDOM.nextInt(FRAME_COUNT);
+            return;
+        }
+        // Any frame but the current one, so every tick changes the grid
+        final int next = RANDOM.nextInt(FRAME_COUNT - 1);
+        frame = (next >= frame) ? next + 1 : next;
+    }
 
-        g.setColor(backgroundColor);
-        g.fillRect(0, 0, getWidth(), getHeight());
-        g.setColor(color);
-        if (clean) {
-            clean = false;
+    private void repaintChanged(int old) {
+        if (old == -1) {
+            repaint();
             return;
         }
+        final int changed = masks[old] ^ masks[frame];
+        // Bounds of an activated circle including its antialiased edge
+        final int size = SQUARE_SIZE + 4;
+
+        for (int y = 0; y < 3; y++) {
+            for (int x = 0; x < 3; x++) {
+                if ((changed & (1 << (3 * y + x))) != 0) {
+                    repaint(
+                        x * SQUARE_SIZE + 2 * MARGIN * x + MARGIN - 2,
+                        y * SQUARE_SIZE + 2 * MARGIN * y + MARGIN - 2,
+                        size,
+                        size
+                    );
+                }
+            }
+        }
+    }
+
+    private void renderFrame(Graphics2D g2, int frame, int width, int height) {
+        int currentLeft;
+        int currentTop;
+
+        g2.setColor(backgroundColor);
+        g2.fillRect(0, 0, width, height);
         for (int y = 0; y < 3; y++) {
             for (int x = 0; x < 3; x++) {
+                final int bit = 1 << (3 * y + x);
                 currentLeft = x * SQUARE_SIZE + 2 * MARGIN * x + MARGIN;
                 currentTop = y * SQUARE_SIZE + 2 * MARGIN * y + MARGIN;
 
-                paintSquare(g, currentLeft, currentTop, RANDOM.nextBoolean());
+                paintSquare(
+                    g2,
+                    currentLeft,
+                    currentTop,
+                    (masks[frame] & bit) != 0
+                );
             }
         }
     }
 
-    private void paintSquare(Graphics g, int x, int y, boolean activated) {
-        final Graphics2D g2 = (Graphics2D) g;
-
-        g2.setRenderingHint(
-            RenderingHints.KEY_ANTIALIASING,
-            RenderingHints.VALUE_ANTIALIAS_ON
-        );
+    private void paintSquare(Graphics2D g2, int x, int y, boolean activated) {
         if (activated) {
             final int increasedPixels = 2;
 
@@ -8,11 +8,11 @@ import engineer.mathsoftware.jdesk.WindowContext;
 import engineer.mathsoftware.jdesk.ui.view.Panel;
 import engineer.mathsoftware.jdesk.work.LoadingView;
 
-import javax.swing.*;
 import java.awt.*;
 
 /**
- * Loading view with little squares running from left to right.
+ * Loading view with little squares running from left to right. It's opaque
+ * and each frame only repaints the squares that changed.
  *
  * @author Tobias Briones
  */
@@ -20,8 +20,9 @@ public final class SquaresLoadingView extends Panel implements LoadingView {
     private static final long serialVersionUID = -3024496598749776705L;
     private static final Dimension SIZE = new Dimension(36, 4);
     private static final int DELAY_MS = 150;
+    private static final int SQUARES = 4;
     private final Color backgroundColor;
-    private final Timer timer;
+    private final transient AnimationScheduler.Animation animation;
     private Color color;
     private int n;
 
@@ -33,10 +34,11 @@ public final class SquaresLoadingView extends Panel implements LoadingView {
     public SquaresLoadingView(WindowContext context) {
         super(context);
         this.backgroundColor = context.getAppStyle().getWindowBackgroundColor();
-        this.timer = new Timer(DELAY_MS, e -> repaint());
+        this.animation = frameTime -> nextFrame();
         this.color = context.getAppStyle().getAccentColor();
         this.n = -1;
 
+        setOpaque(true);
         setPreferredSize(SIZE);
     }
 
@@ -47,52 +49,63 @@ public final class SquaresLoadingView extends Panel implements LoadingView {
      */
     public void setColor(Color color) {
         this.color = color;
+        repaint();
     }
 
     @Override
     public boolean isRunning() {
-        return timer.isRunning();
+        return AnimationScheduler.isRunning(animation);
     }
 
     @Override
     public void start() {
-        if (timer.isRunning()) {
+        if (AnimationScheduler.isRunning(animation)) {
             return;
         }
         n = -1;
 
         repaint();
-        timer.start();
+        AnimationScheduler.start(this, DELAY_MS, animation);
     }
 
     @Override
     public void end() {
-        if (!timer.isRunning()) {
+        if (!AnimationScheduler.isRunning(animation)) {
             return;
         }
         n = -1;
 
-        timer.stop();
+        AnimationScheduler.stop(animation);
         repaint();
     }
 
     @Override
     protected void paintComponent(Graphics g) {
-        final int x = n * getHeight() + 4 * (n + 1);
-
         g.setColor(backgroundColor);
         g.fillRect(0, 0, getWidth(), getHeight());
         if (n == -1) {
-            g.setColor(backgroundColor);
-            g.fillRect(0, 0, getWidth(), getHeight());
-            n++;
             return;
         }
-        if (n == 3) {
-            n = -2;
-        }
         g.setColor(color);
-        g.fillRect(x, 0, getHeight(), getHeight());
-        n++;
+        g.fillRect(getSquareX(n), 0, getHeight(), getHeight());
+    }
+
+    private void nextFrame() {
+        final int old = n;
+        n = (n == SQUARES - 1) ? -1 : n + 1;
+
+        // Only the square that is cleared and the one that is filled change
+        repaintSquare(old);
+        repaintSquare(n);
+    }
+
+    private void repaintSquare(int square) {
+        if (square != -1) {
+            repaint(getSquareX(square), 0, getHeight(), getHeight());
+        }
+    }
+
+    private int getSquareX(int square) {
+        return square * getHeight() + 4 * (square + 1);
     }
 }
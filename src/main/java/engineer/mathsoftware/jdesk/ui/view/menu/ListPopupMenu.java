@@ -5,16 +5,17 @@
 package engineer.mathsoftware.jdesk.ui.view.menu;
 
 import engineer.mathsoftware.jdesk.WindowContext;
+import engineer.mathsoftware.jdesk.ui.view.AppendableListModel;
 import engineer.mathsoftware.jdesk.ui.view.ListPane;
 import engineer.mathsoftware.jdesk.ui.view.ScrollPane;
 
-import javax.swing.*;
 import javax.swing.event.ListSelectionListener;
 import java.awt.*;
+import java.util.List;
 
 /**
- * Popup showing a list of items. Use the methods {@link #addItem(String)} to
- * add an item to this popup menu. Call
+ * Popup showing a list of items. Use the methods {@link #addItem(String)} or
+ * {@link #addItems(List)} to add items to this popup menu. Call
  * {@link #setItemSelectedListener(ItemSelectedListener)}
  * to receive item events.
  *
@@ -37,7 +38,7 @@ public class ListPopupMenu extends PopupMenu {
         void onItemSelected(String item, int index);
     }
 
-    private final DefaultListModel<String> listModel;
+    private final AppendableListModel<String> listModel;
     private transient ItemSelectedListener l;
 
     /**
@@ -47,7 +48,7 @@ public class ListPopupMenu extends PopupMenu {
      */
     public ListPopupMenu(WindowContext context) {
         super(context);
-        this.listModel = new DefaultListModel<>();
+        this.listModel = new AppendableListModel<>();
         final ListPane<String> list = new ListPane<>(context, listModel);
         final ScrollPane scroll = new ScrollPane(context, list);
         final ListSelectionListener lsl = e -> {
@@ -87,6 +88,18 @@ public class ListPopupMenu extends PopupMenu {
      * @param item item text
      */
     public void addItem(String item) {
-        listModel.addElement(item);
+        listModel.add(item);
+    }
+
+    /**
+     * Adds the items to the popup at once. It can be used as the {@link
+     * engineer.mathsoftware.jdesk.work.WorkRunnableListener} of a {@link
+     * engineer.mathsoftware.jdesk.work.StreamWorker} to append the items as
+     * they are produced.
+     *
+     * @param items items text
+     */
+    public void addItems(List<String> items) {
+        listModel.addAll(items);
     }
 }
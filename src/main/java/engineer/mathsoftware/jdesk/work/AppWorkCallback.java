@@ -29,6 +29,10 @@ public abstract class AppWorkCallback<R> implements WorkCallback<R> {
         this.window = window;
     }
 
+    WorkScope getWorkScope() {
+        return window != null ? window.getWorkScope() : null;
+    }
+
     @Override
     public void workFailed(Exception exception) {
         AppDialog.showMessage(
@@ -6,6 +6,11 @@ package engineer.mathsoftware.jdesk.work;
 
 import javax.swing.*;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Worker that executes and manages background tasks.
@@ -15,12 +20,79 @@ import java.util.List;
  *
  * @author Tobias Briones
  * @see SwingWorker
+ * @see WorkExecutor
+ * @see WorkMetrics
  */
 public final class AppWorker<R, U> {
+    /**
+     * Timeout of the works that never time out.
+     */
+    public static final long NO_TIMEOUT = 0L;
+    private static final long DEFAULT_TIMEOUT = -1L;
     private final LoadingView loadingView;
     private final WorkCallback<R> callback;
     private final WorkRunnableListener<U> l;
-    private Worker<R, U> worker;
+    private final WorkExecutor executor;
+    private final CancellationToken token;
+    private UpdateChannel.Mode updateMode;
+    private int updateCapacity;
+    private String name;
+    private WorkMetrics metrics;
+    private long timeout;
+    private RetryPolicy retryPolicy;
+    private WorkRunnable<R> runnable;
+    private Stats stats;
+    private UpdateChannel<U> channel;
+    private int attempt;
+    private volatile boolean isDeadlinePassed;
+    private volatile boolean isLoadingViewStarted;
+    private volatile ScheduledFuture<?> deadline;
+    private volatile ScheduledFuture<?> retry;
+    private final List<Runnable> completionListeners;
+    private volatile Worker worker;
+
+    /**
+     * Constructs a new worker to perform a new task on background on the given
+     * executor. It sets the passed {@link WorkRunnableListener} to implement
+     * progress updates to notify the UI from the background performing task of
+     * {@link Runnable#run()}.
+     *
+     * @param loadingView loading view
+     * @param callback    callback
+     * @param l           app runnable listener
+     * @param executor    executor to run the task on, or {@code null} to use
+     *                    {@link WorkExecutors#getIo()}
+     *
+     * @see AppWorker#update(Object)
+     */
+    public AppWorker(
+        LoadingView loadingView,
+        WorkCallback<R> callback,
+        WorkRunnableListener<U> l,
+        WorkExecutor executor
+    ) {
+        this.loadingView = loadingView;
+        this.callback = callback;
+        this.l = l;
+        this.executor = executor;
+        this.token = new CancellationToken();
+        this.updateMode = UpdateChannel.Mode.BATCH;
+        this.updateCapacity = UpdateChannel.DEFAULT_CAPACITY;
+        this.name = null;
+        this.metrics = null;
+        this.timeout = DEFAULT_TIMEOUT;
+        this.retryPolicy = RetryPolicy.NONE;
+        this.runnable = null;
+        this.stats = null;
+        this.channel = null;
+        this.attempt = 0;
+        this.isDeadlinePassed = false;
+        this.isLoadingViewStarted = false;
+        this.deadline = null;
+        this.retry = null;
+        this.completionListeners = new CopyOnWriteArrayList<>();
+        this.worker = null;
+    }
 
     /**
      * Constructs a new worker to perform a new task on background. It sets the
@@ -39,10 +111,7 @@ public final class AppWorker<R, U> {
         WorkCallback<R> callback,
         WorkRunnableListener<U> l
     ) {
-        this.loadingView = loadingView;
-        this.callback = callback;
-        this.l = l;
-        this.worker = null;
+        this(loadingView, callback, l, null);
     }
 
     /**
@@ -54,7 +123,7 @@ public final class AppWorker<R, U> {
      * @param callback    callback
      */
     public AppWorker(LoadingView loadingView, WorkCallback<R> callback) {
-        this(loadingView, callback, null);
+        this(loadingView, callback, null, null);
     }
 
     /**
@@ -65,7 +134,227 @@ public final class AppWorker<R, U> {
      * @param loadingView loading view
      */
     public AppWorker(LoadingView loadingView) {
-        this(loadingView, null, null);
+        this(loadingView, null, null, null);
+    }
+
+    /**
+     * Returns the executor this worker runs its task on.
+     *
+     * @return the executor of this worker
+     */
+    public WorkExecutor getExecutor() {
+        return executor == null ? WorkExecutors.getIo() : executor;
+    }
+
+    /**
+     * Returns the cancellation token of this work. It's cancelled when {@link
+     * #cancel()} is called, so the {@link WorkRunnable#run()} can poll it to
+     * stop as soon as possible, and register callbacks to release its
+     * resources. It's also available from {@link CancellationToken#current()}
+     * on the thread running the work.
+     *
+     * @return the cancellation token of this work
+     */
+    public CancellationToken getCancellationToken() {
+        return token;
+    }
+
+    /**
+     * Links this work to a parent token, so this work is cancelled when the
+     * parent token is cancelled. It can be linked before it's executed, and if
+     * the parent is cancelled by then, the work never runs. The parent stops
+     * referencing this work when it completes.
+     *
+     * @param parent parent cancellation token
+     */
+    public void linkTo(CancellationToken parent) {
+        final Runnable callback = this::cancel;
+
+        parent.onCancel(callback);
+        addCompletionListener(() -> parent.removeOnCancel(callback));
+    }
+
+    /**
+     * Returns how the updates posted by {@link #update(Object)} are delivered
+     * to the {@link WorkRunnableListener}.
+     *
+     * @return the update delivery mode
+     */
+    public UpdateChannel.Mode getUpdateMode() {
+        return updateMode;
+    }
+
+    /**
+     * Sets how the updates posted by {@link #update(Object)} are delivered to
+     * the {@link WorkRunnableListener}. By default, it's {@link
+     * UpdateChannel.Mode#BATCH}, set {@link UpdateChannel.Mode#LATEST} when
+     * only the last update matters, like progress reporting.
+     *
+     * @param updateMode update delivery mode
+     *
+     * @throws RuntimeException if this work was already executed
+     * @see UpdateChannel
+     */
+    public void setUpdateMode(UpdateChannel.Mode updateMode) {
+        if (worker != null) {
+            throw new RuntimeException("This worker was already executed");
+        }
+        this.updateMode = updateMode;
+    }
+
+    /**
+     * Sets the maximum number of pending updates for {@link
+     * UpdateChannel.Mode#BATCH}, when it's reached {@link #update(Object)}
+     * waits until the EDT delivers them. By default, it's {@link
+     * UpdateChannel#DEFAULT_CAPACITY}.
+     *
+     * @param updateCapacity maximum number of pending updates, greater than 0
+     *
+     * @throws RuntimeException if this work was already executed
+     */
+    public void setUpdateCapacity(int updateCapacity) {
+        if (worker != null) {
+            throw new RuntimeException("This worker was already executed");
+        }
+        this.updateCapacity = updateCapacity;
+    }
+
+    /**
+     * Returns the name this work reports its metrics with. If it was not set,
+     * it's the class name of the executed {@link WorkRunnable}, or {@code
+     * null} if it has not been executed yet.
+     *
+     * @return the name of this work
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the name this work reports its metrics with, so works of the same
+     * kind are aggregated together.
+     *
+     * @param name name of this work
+     *
+     * @throws RuntimeException if this work was already executed
+     */
+    public void setName(String name) {
+        if (worker != null) {
+            throw new RuntimeException("This worker was already executed");
+        }
+        this.name = name;
+    }
+
+    /**
+     * Returns the metrics this work reports to.
+     *
+     * @return the metrics of this work
+     */
+    public WorkMetrics getMetrics() {
+        return metrics == null ? WorkExecutors.getMetrics() : metrics;
+    }
+
+    /**
+     * Sets the metrics this work reports to. By default, it's the app-wide
+     * {@link WorkExecutors#getMetrics()}.
+     *
+     * @param metrics metrics of this work, or {@code null} to use the app-wide
+     *                metrics
+     *
+     * @throws RuntimeException if this work was already executed
+     */
+    public void setMetrics(WorkMetrics metrics) {
+        if (worker != null) {
+            throw new RuntimeException("This worker was already executed");
+        }
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the policy to retry this work when it fails.
+     *
+     * @return the retry policy of this work
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Sets the policy to retry this work when it fails. The retries are part
+     * of the same work, so the loading view keeps running between the
+     * attempts, and the callback is only notified once the work finishes, or
+     * the last attempt fails. The delay between the attempts is scheduled, so
+     * no thread waits for it. By default, it's {@link RetryPolicy#NONE}.
+     *
+     * @param retryPolicy retry policy
+     *
+     * @throws RuntimeException if this work was already executed
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        if (worker != null) {
+            throw new RuntimeException("This worker was already executed");
+        }
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Returns the timeout of this work in milliseconds, or {@link
+     * #NO_TIMEOUT}. If it was not set, it's the {@link
+     * WorkExecutors#getDefaultTimeout()}.
+     *
+     * @return the timeout of this work
+     */
+    public long getTimeout() {
+        return timeout == DEFAULT_TIMEOUT ? WorkExecutors.getDefaultTimeout() : timeout;
+    }
+
+    /**
+     * Sets the timeout of this work in milliseconds, counted from the moment
+     * it's executed, so it includes the time waiting on the executor queue.
+     * The deadline includes the retries of the work. When the deadline passes
+     * and the work has not completed, it's cancelled as by {@link #cancel()},
+     * and the callback is notified by {@link WorkCallback#workTimedOut()}
+     * instead of {@link WorkCallback#workCancelled()}. The deadline is
+     * scheduled, so no thread waits for it.
+     *
+     * @param timeoutMillis timeout in milliseconds, or {@link #NO_TIMEOUT}
+     *
+     * @throws RuntimeException if this work was already executed
+     */
+    public void setTimeout(long timeoutMillis) {
+        if (worker != null) {
+            throw new RuntimeException("This worker was already executed");
+        }
+        if (timeoutMillis < 0L) {
+            throw new IllegalArgumentException("Timeout must not be negative");
+        }
+        this.timeout = timeoutMillis;
+    }
+
+    /**
+     * Returns {@code true} if this task was cancelled because it didn't
+     * complete before its timeout.
+     *
+     * @return {@code true} if and only if this task timed out
+     */
+    public boolean isTimedOut() {
+        if (worker == null) {
+            return false;
+        }
+        return worker.isCompleted() && worker.outcome == WorkMetrics.Outcome.TIMED_OUT;
+    }
+
+    /**
+     * Returns the number of the current attempt of this work, starting at 1.
+     * If {@link AppWorker#execute(WorkRunnable)} has not been called yet it
+     * returns 0.
+     *
+     * @return the number of the current attempt
+     *
+     * @see #setRetryPolicy(RetryPolicy)
+     */
+    public int getAttempt() {
+        return attempt;
     }
 
     /**
@@ -98,26 +387,43 @@ public final class AppWorker<R, U> {
     }
 
     /**
-     * Schedules the SwingWorker for execution on a worker thread. There are a
-     * number of worker threads available. In the event all worker threads are
-     * busy handling other SwingWorkers this SwingWorker is placed in a waiting
-     * queue. Note: SwingWorker is only designed to be executed once. Executing
-     * a SwingWorker more than once will not result in invoking the
-     * doInBackground method twice.
+     * Schedules the work for execution on the worker {@link WorkExecutor}. In
+     * the event all the executor threads are busy this work is placed in the
+     * executor queue. If the queue is full, the executor rejection policy is
+     * applied. If the callback is an {@link AppWorkCallback}, the work is
+     * tracked by the {@link WorkScope} of its window. If its cancellation
+     * token is already cancelled, the task doesn't run and the work is
+     * cancelled. Note: an AppWorker is only designed to be executed once.
      *
      * @param runnable runnable
      *
-     * @throws RuntimeException if it's requested to execute this work more than
-     *                          one time, it can only be executed one work by
-     *                          each AppWorker instance
+     * @throws RuntimeException           if it's requested to execute this
+     *                                    work more than one time, it can only
+     *                                    be executed one work by each AppWorker
+     *                                    instance
+     * @throws RejectedExecutionException if the executor does not accept the
+     *                                    work
      */
     public void execute(WorkRunnable<R> runnable) {
         if (worker != null) {
             throw new RuntimeException("This worker was already executed");
         }
-        this.worker = new Worker<>(loadingView, runnable, l, callback);
+        if (name == null) {
+            name = nameOf(runnable);
+        }
+        this.runnable = runnable;
+        this.stats = new Stats(name, getMetrics());
+        this.channel = l != null ? newUpdateChannel(stats) : null;
+        this.attempt = 1;
+        this.worker = new Worker();
 
-        worker.exec();
+        // It could've been cancelled before it was executed, like by linkTo
+        if (token.isCancelled()) {
+            worker.cancel(true);
+            return;
+        }
+        worker.exec(getExecutor(), getTimeout());
+        trackByWindowScope();
     }
 
     /**
@@ -125,24 +431,29 @@ public final class AppWorker<R, U> {
      * task has already completed, has already been cancelled, or could not be
      * cancelled for some other reason. If successful, and this task has not
      * started when cancel is called, this task should never run. If the task
-     * has already started, then the thread executing this task should be
-     * interrupted in an attempt to stop the task. If {@link
-     * AppWorker#execute(WorkRunnable)} has not been called yet it returns
-     * false.
+     * has already started, its {@link #getCancellationToken()} is cancelled
+     * first, and then the thread executing this task should be interrupted in
+     * an attempt to stop the task. If the task is waiting to be retried, the
+     * retry is cancelled. If {@link AppWorker#execute(WorkRunnable)} has not
+     * been called yet, the task never runs when it's executed.
      *
      * @return false if the task could not be cancelled, typically because it
      * has already completed normally; true otherwise
      */
     public boolean cancel() {
-        if (worker == null) {
+        if (worker != null && worker.isCompleted()) {
             return false;
         }
-        return worker.cancel(true);
+        // The token goes first, so execute() sees it if the worker is not set
+        token.cancel();
+        final Worker current = worker;
+        return current == null || current.cancel(true);
     }
 
     /**
      * Call this method from {@link WorkRunnable#run()} to post updates to the
-     * UI.
+     * UI. The updates are coalesced and delivered at most once per frame
+     * according to the {@link #getUpdateMode()}.
      *
      * @param update update
      *
@@ -157,29 +468,167 @@ public final class AppWorker<R, U> {
         if (l == null) {
             throw new RuntimeException("This work does not allow updates");
         }
-        worker.update(update);
+        stats.posted();
+        channel.post(update);
+    }
+
+    void addCompletionListener(Runnable completionListener) {
+        completionListeners.add(completionListener);
+    }
+
+    private void trackByWindowScope() {
+        if (callback instanceof AppWorkCallback) {
+            final WorkScope scope = ((AppWorkCallback<R>) callback).getWorkScope();
+
+            if (scope != null) {
+                scope.track(this);
+            }
+        }
+    }
+
+    private void timeOut() {
+        if (isCompleted()) {
+            return;
+        }
+        // It's checked on completion, so a pending retry is not attempted
+        isDeadlinePassed = true;
+        token.cancel();
+        worker.cancel(true);
+    }
+
+    private void scheduleRetry(Exception exception) {
+        final Worker next = new Worker();
+        final long delay = retryPolicy.getDelay(attempt);
+        final WorkExecutor executor = getExecutor();
+
+        stats.retried(attempt, exception);
+        attempt++;
+        worker = next;
+        retry = WorkExecutors.getScheduler().schedule(
+            () -> next.resubmit(executor),
+            delay,
+            TimeUnit.MILLISECONDS
+        );
+
+        // It could've been cancelled before the next attempt was set
+        if (token.isCancelled()) {
+            next.cancel(true);
+        }
+    }
+
+    private UpdateChannel<U> newUpdateChannel(Stats stats) {
+        final WorkRunnableListener<U> listener;
+
+        if (stats.isEnabled()) {
+            listener = updates -> {
+                stats.delivered += updates.size();
+                l.update(updates);
+            };
+        }
+        else {
+            listener = l;
+        }
+        return new UpdateChannel<>(listener, updateMode, updateCapacity);
     }
 
-    private static final class Worker<R, U> extends SwingWorker<Void, U> {
-        private final LoadingView loadingView;
-        private final WorkRunnable<R> runnable;
-        private final WorkRunnableListener<U> l;
-        private final WorkCallback<R> callback;
+    private static String nameOf(Object runnable) {
+        final String className = runnable.getClass().getName();
+        final int lambdaIndex = className.indexOf("$$Lambda");
+        return lambdaIndex == -1 ? className : className.substring(0, lambdaIndex);
+    }
+
+    /**
+     * Timestamps and counters of a work, reported to its metrics.
+     */
+    private static final class Stats {
+        private final String name;
+        private final WorkMetrics metrics;
+        private final LongAdder posted;
+        private long enqueueTime;
+        private volatile long startTime;
+        private volatile long finishTime;
+        private long delivered;
+
+        private Stats(String name, WorkMetrics metrics) {
+            this.name = name;
+            this.metrics = metrics;
+            this.posted = new LongAdder();
+            this.enqueueTime = 0L;
+            this.startTime = 0L;
+            this.finishTime = 0L;
+            this.delivered = 0L;
+        }
+
+        private boolean isEnabled() {
+            return metrics != WorkMetrics.NONE;
+        }
+
+        private void enqueued() {
+            enqueueTime = System.nanoTime();
+            metrics.workEnqueued(name);
+        }
+
+        private void resubmitted() {
+            enqueueTime = System.nanoTime();
+        }
+
+        private void retried(int attempt, Exception exception) {
+            metrics.workRetried(name, attempt, exception);
+        }
+
+        private void started() {
+            finishTime = 0L;
+            startTime = System.nanoTime();
+            metrics.workStarted(name, startTime - enqueueTime);
+        }
+
+        private void finished() {
+            finishTime = System.nanoTime();
+        }
+
+        private void posted() {
+            if (isEnabled()) {
+                posted.increment();
+            }
+        }
+
+        private void completed(WorkMetrics.Outcome outcome, boolean hasUpdates) {
+            final long start = startTime;
+            final long finish = finishTime;
+            final long now = System.nanoTime();
+            final long runTime;
+
+            if (start == 0L) {
+                runTime = 0L;
+            }
+            else if (finish == 0L) {
+                // Cancelled while running
+                runTime = now - start;
+            }
+            else {
+                runTime = finish - start;
+            }
+            metrics.workCompleted(name, outcome, runTime);
+
+            if (hasUpdates) {
+                metrics.updatesReported(name, posted.sum(), delivered, runTime);
+            }
+            if (finish != 0L) {
+                metrics.callbackInvoked(name, now - finish);
+            }
+        }
+    }
+
+    private final class Worker extends SwingWorker<Void, Void> {
         private R result;
         private Exception exception;
-        private boolean isCompleted;
-
-        private Worker(
-            LoadingView loadingView,
-            WorkRunnable<R> runnable,
-            WorkRunnableListener<U> l,
-            WorkCallback<R> callback
-        ) {
-            this.loadingView = loadingView;
-            this.runnable = runnable;
-            this.l = l;
-            this.callback = callback;
+        private WorkMetrics.Outcome outcome;
+        private volatile boolean isCompleted;
+
+        private Worker() {
+            this.result = null;
             this.exception = null;
+            this.outcome = null;
             this.isCompleted = false;
         }
 
@@ -189,45 +638,126 @@ public final class AppWorker<R, U> {
 
         @Override
         protected Void doInBackground() {
+            final CancellationToken previous = CancellationToken.setCurrent(token);
+
+            stats.started();
             try {
                 result = runnable.run();
             }
             catch (Exception e) {
                 exception = e;
             }
+            finally {
+                stats.finished();
+                CancellationToken.setCurrent(previous);
+            }
             return null;
         }
 
         @Override
-        protected void process(List<U> chunks) {
-            l.update(chunks);
+        protected void done() {
+            if (isCompleted) {
+                return;
+            }
+            // A cancelled work is cancelled whether it stopped cooperatively,
+            // failed, or returned anyway
+            if (isCancelled() || isDeadlinePassed || token.isCancelled()) {
+                complete(isDeadlinePassed
+                         ? WorkMetrics.Outcome.TIMED_OUT
+                         : WorkMetrics.Outcome.CANCELLED);
+            }
+            else if (exception != null
+                     && retryPolicy.shouldRetry(attempt, exception)) {
+                scheduleRetry(exception);
+            }
+            else if (exception != null) {
+                complete(WorkMetrics.Outcome.FAILED);
+            }
+            else {
+                complete(WorkMetrics.Outcome.FINISHED);
+            }
         }
 
-        @Override
-        protected void done() {
+        private void complete(WorkMetrics.Outcome outcome) {
+            this.outcome = outcome;
             isCompleted = true;
 
-            loadingView.end();
-            if (callback != null) {
-                if (isCancelled()) {
-                    callback.workCancelled();
-                }
-                else if (exception != null) {
-                    callback.workFailed(exception);
+            for (Runnable listener : completionListeners) {
+                listener.run();
+            }
+            if (deadline != null) {
+                deadline.cancel(false);
+            }
+            if (retry != null) {
+                retry.cancel(false);
+            }
+            if (channel != null) {
+                if (outcome == WorkMetrics.Outcome.FINISHED
+                    || outcome == WorkMetrics.Outcome.FAILED) {
+                    channel.flush();
                 }
-                else {
+                channel.close();
+            }
+            stats.completed(outcome, channel != null);
+
+            // A work cancelled before it was executed never started the view
+            if (isLoadingViewStarted) {
+                loadingView.end();
+            }
+            if (callback == null) {
+                return;
+            }
+            switch (outcome) {
+                case FINISHED:
                     callback.workFinished(result);
-                }
+                    break;
+                case FAILED:
+                    callback.workFailed(exception);
+                    break;
+                case CANCELLED:
+                    callback.workCancelled();
+                    break;
+                case TIMED_OUT:
+                    callback.workTimedOut();
+                    break;
             }
         }
 
-        private void exec() {
+        private void exec(WorkExecutor executor, long timeout) {
+            isLoadingViewStarted = true;
             loadingView.start();
-            execute();
+            stats.enqueued();
+
+            // It's set before submitting, so the completion always cancels it
+            if (timeout > 0L) {
+                deadline = WorkExecutors.getScheduler().schedule(
+                    AppWorker.this::timeOut,
+                    timeout,
+                    TimeUnit.MILLISECONDS
+                );
+            }
+            try {
+                executor.execute(this);
+            }
+            catch (RejectedExecutionException e) {
+                if (deadline != null) {
+                    deadline.cancel(false);
+                }
+                isLoadingViewStarted = false;
+                loadingView.end();
+                throw e;
+            }
         }
 
-        private void update(U update) {
-            publish(update);
+        private void resubmit(WorkExecutor executor) {
+            stats.resubmitted();
+            try {
+                executor.execute(this);
+            }
+            catch (RejectedExecutionException e) {
+                exception = e;
+                SwingUtilities.invokeLater(() -> complete(WorkMetrics.Outcome.FAILED));
+            }
         }
     }
 }
@@ -0,0 +1,67 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregated result of a batch of works executed by {@link BatchWorker}. It
+ * has the result of each work in the order they were submitted, and the
+ * exception of each work that failed.
+ *
+ * @param <R> type of the work results
+ *
+ * @author Tobias Briones
+ */
+public final class BatchResult<R> {
+    private final List<R> results;
+    private final Map<Integer, Exception> failures;
+
+    BatchResult(List<R> results, Map<Integer, Exception> failures) {
+        this.results = Collections.unmodifiableList(results);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * Returns the number of works of the batch.
+     *
+     * @return the number of works of the batch
+     */
+    public int size() {
+        return results.size();
+    }
+
+    /**
+     * Returns the results of the works in the order they were submitted. The
+     * result of a work that failed is {@code null}.
+     *
+     * @return the results of the works
+     */
+    public List<R> getResults() {
+        return results;
+    }
+
+    /**
+     * Returns the exceptions of the works that failed by their index in the
+     * batch, in ascending order.
+     *
+     * @return the exceptions of the failed works
+     */
+    public Map<Integer, Exception> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Returns {@code true} if and only if all the works of the batch finished
+     * successfully.
+     *
+     * @return {@code true} if and only if no work failed
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+}
@@ -0,0 +1,408 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Worker that executes a batch of works as a single work. The loading view
+ * starts and ends once for the whole batch, the progress is delivered at most
+ * once per frame, and the callback is notified once with the aggregated {@link
+ * BatchResult}. At most the given number of works of the batch run at once,
+ * when one completes the next one is submitted to the executor, so no thread
+ * waits for the batch to complete. The batch completes once all its works
+ * have returned, even if it was cancelled.
+ * <p>
+ * By default, the failed works are collected into the result, and the rest of
+ * the works keep running. If it's set to fail fast, the first failure cancels
+ * the remaining works, and the callback is notified by {@link
+ * WorkCallback#workFailed(Exception)} with that failure.
+ * <p>
+ * A BatchWorker executes one batch only, and it must be used from the EDT.
+ *
+ * @param <R> type of the work results
+ *
+ * @author Tobias Briones
+ * @see AppWorker
+ */
+public final class BatchWorker<R> {
+    /**
+     * Default maximum number of works running at once.
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY = Runtime.getRuntime()
+                                                             .availableProcessors();
+    private final LoadingView loadingView;
+    private final WorkCallback<BatchResult<R>> callback;
+    private final WorkExecutor executor;
+    private final int maxConcurrency;
+    private final CancellationToken token;
+    private final Progress progress;
+    private final Object lock;
+    private final Set<Task> running;
+    private final AtomicReference<Exception> firstFailure;
+    private int next;
+    private boolean isStopped;
+    private boolean isCompleted;
+    private boolean isFailFast;
+    private Consumer<Progress.Snapshot> progressListener;
+    private List<WorkRunnable<R>> runnables;
+    private Object[] results;
+    private Exception[] failures;
+    private UpdateChannel<Progress> channel;
+
+    /**
+     * Constructor for BatchWorker. If the loading view is a {@link
+     * ProgressLoadingView}, it's updated with the progress of the batch.
+     *
+     * @param loadingView    loading view
+     * @param callback       callback notified once with the result of the
+     *                       batch, or {@code null}
+     * @param maxConcurrency maximum number of works running at once, greater
+     *                       than 0
+     * @param executor       executor to run the works on, or {@code null} to
+     *                       use the default {@link AppWorker} executor
+     */
+    public BatchWorker(
+        LoadingView loadingView,
+        WorkCallback<BatchResult<R>> callback,
+        int maxConcurrency,
+        WorkExecutor executor
+    ) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max concurrency must be positive");
+        }
+        this.loadingView = loadingView;
+        this.callback = callback;
+        this.executor = executor != null ? executor : WorkExecutors.getIo();
+        this.maxConcurrency = maxConcurrency;
+        this.token = new CancellationToken();
+        this.progress = new Progress();
+        this.lock = new Object();
+        this.running = new HashSet<>();
+        this.firstFailure = new AtomicReference<>(null);
+        this.next = 0;
+        this.isStopped = false;
+        this.isCompleted = false;
+        this.isFailFast = false;
+        this.progressListener = null;
+        this.runnables = null;
+        this.results = null;
+        this.failures = null;
+        this.channel = null;
+    }
+
+    /**
+     * Constructor for BatchWorker with the default maximum concurrency and
+     * executor.
+     *
+     * @param loadingView loading view
+     * @param callback    callback notified once with the result of the batch,
+     *                    or {@code null}
+     */
+    public BatchWorker(
+        LoadingView loadingView,
+        WorkCallback<BatchResult<R>> callback
+    ) {
+        this(loadingView, callback, DEFAULT_MAX_CONCURRENCY, null);
+    }
+
+    /**
+     * Returns the cancellation token of the batch. Each work of the batch has
+     * it as its {@link CancellationToken#current()}.
+     *
+     * @return the cancellation token of the batch
+     */
+    public CancellationToken getCancellationToken() {
+        return token;
+    }
+
+    /**
+     * Returns the progress of the batch, its size is the number of works and
+     * it's added each time a work completes.
+     *
+     * @return the progress of the batch
+     */
+    public Progress getProgress() {
+        return progress;
+    }
+
+    /**
+     * Sets whether the first failure cancels the remaining works of the batch.
+     *
+     * @param isFailFast {@code true} to fail the batch on the first failure
+     *
+     * @throws RuntimeException if the batch was already executed
+     */
+    public void setFailFast(boolean isFailFast) {
+        requireNotExecuted();
+        this.isFailFast = isFailFast;
+    }
+
+    /**
+     * Sets a listener notified on the EDT with the latest progress of the
+     * batch, at most once per frame, for example to update a counter of the
+     * completed works.
+     *
+     * @param progressListener progress listener, or {@code null}
+     *
+     * @throws RuntimeException if the batch was already executed
+     */
+    public void setProgressListener(Consumer<Progress.Snapshot> progressListener) {
+        requireNotExecuted();
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Returns {@code true} if and only if the batch was cancelled, or it
+     * failed fast.
+     *
+     * @return {@code true} if and only if the batch was cancelled
+     */
+    public boolean isCancelled() {
+        return token.isCancelled();
+    }
+
+    /**
+     * Executes the batch of works.
+     *
+     * @param runnables works to execute
+     *
+     * @throws RuntimeException if the batch was already executed
+     */
+    public void executeAll(Collection<? extends WorkRunnable<R>> runnables) {
+        requireNotExecuted();
+        this.runnables = new ArrayList<>(runnables);
+        this.results = new Object[this.runnables.size()];
+        this.failures = new Exception[this.runnables.size()];
+        this.channel = new UpdateChannel<>(
+            this::deliverProgress,
+            UpdateChannel.Mode.LATEST
+        );
+
+        progress.setSize(this.runnables.size());
+        loadingView.start();
+        for (int i = 0; i < maxConcurrency; i++) {
+            submitNext();
+        }
+        tryComplete();
+    }
+
+    /**
+     * Cancels the batch. The works that have not started never run, and the
+     * running works are cancelled as by {@link AppWorker#cancel()}. The
+     * callback is notified by {@link WorkCallback#workCancelled()} once the
+     * running works have returned.
+     */
+    public void cancel() {
+        if (runnables == null) {
+            return;
+        }
+        token.cancel();
+        stop();
+    }
+
+    private void stop() {
+        synchronized (lock) {
+            isStopped = true;
+
+            for (Task task : running) {
+                task.interrupt();
+            }
+        }
+        tryComplete();
+    }
+
+    private void submitNext() {
+        while (true) {
+            final Task task;
+
+            // The next work is claimed under the same lock that stops the batch
+            synchronized (lock) {
+                if (isStopped || next == runnables.size()) {
+                    return;
+                }
+                task = new Task(next++);
+                running.add(task);
+            }
+            try {
+                executor.execute(task);
+                return;
+            }
+            catch (RejectedExecutionException e) {
+                record(task, null, e);
+            }
+        }
+    }
+
+    private void taskDone(Task task, R result, Exception failure) {
+        record(task, result, failure);
+        submitNext();
+        tryComplete();
+    }
+
+    private void record(Task task, R result, Exception failure) {
+        if (failure != null) {
+            failed(task.index, failure);
+        }
+        else {
+            results[task.index] = result;
+        }
+        progress.add();
+        channel.post(progress);
+        synchronized (lock) {
+            running.remove(task);
+        }
+    }
+
+    private void failed(int index, Exception exception) {
+        failures[index] = exception;
+
+        // The failures caused by cancelling the batch don't fail it
+        if (isFailFast
+            && !token.isCancelled()
+            && firstFailure.compareAndSet(null, exception)) {
+            token.cancel();
+            stop();
+        }
+    }
+
+    private void tryComplete() {
+        synchronized (lock) {
+            final boolean isPending = !isStopped && next < runnables.size();
+
+            if (isCompleted || isPending || !running.isEmpty()) {
+                return;
+            }
+            isCompleted = true;
+        }
+        SwingUtilities.invokeLater(this::complete);
+    }
+
+    private void complete() {
+        final Exception failure = firstFailure.get();
+        final boolean isCancelled = token.isCancelled();
+
+        if (!isCancelled) {
+            channel.flush();
+        }
+        channel.close();
+        loadingView.end();
+        if (callback == null) {
+            return;
+        }
+        if (failure != null) {
+            callback.workFailed(failure);
+        }
+        else if (isCancelled) {
+            callback.workCancelled();
+        }
+        else {
+            callback.workFinished(newResult());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private BatchResult<R> newResult() {
+        final Map<Integer, Exception> failureMap = new TreeMap<>();
+
+        for (int i = 0; i < failures.length; i++) {
+            if (failures[i] != null) {
+                failureMap.put(i, failures[i]);
+            }
+        }
+        return new BatchResult<>((List<R>) Arrays.asList(results), failureMap);
+    }
+
+    private void deliverProgress(List<Progress> updates) {
+        final Progress.Snapshot snapshot = updates.get(updates.size() - 1)
+                                                  .snapshot();
+
+        if (loadingView instanceof ProgressLoadingView) {
+            ((ProgressLoadingView) loadingView).setProgress(snapshot);
+        }
+        if (progressListener != null) {
+            progressListener.accept(snapshot);
+        }
+    }
+
+    private void requireNotExecuted() {
+        if (runnables != null) {
+            throw new RuntimeException("This worker was already executed");
+        }
+    }
+
+    private final class Task implements Runnable {
+        private final int index;
+        private Thread thread;
+
+        private Task(int index) {
+            this.index = index;
+            this.thread = null;
+        }
+
+        @Override
+        public void run() {
+            final boolean isSkipped;
+
+            synchronized (lock) {
+                isSkipped = isStopped;
+
+                if (isSkipped) {
+                    running.remove(this);
+                }
+                else {
+                    thread = Thread.currentThread();
+                }
+            }
+            // The batch was stopped before this work started
+            if (isSkipped) {
+                tryComplete();
+                return;
+            }
+            final CancellationToken previous = CancellationToken.setCurrent(token);
+            R result = null;
+            Exception failure = null;
+
+            try {
+                result = runnables.get(index).run();
+            }
+            catch (Exception e) {
+                failure = e;
+            }
+            catch (Error e) {
+                failure = new ExecutionException(e);
+            }
+            finally {
+                CancellationToken.setCurrent(previous);
+                synchronized (lock) {
+                    thread = null;
+
+                    // Don't leak the cancellation interrupt to the next task
+                    Thread.interrupted();
+                }
+            }
+            taskDone(this, result, failure);
+        }
+
+        // Must be called under the batch lock
+        private void interrupt() {
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Token to cooperatively cancel a background work. The work polls {@link
+ * #isCancelled()} or calls {@link #throwIfCancelled()} on its loops, and
+ * registers callbacks with {@link #onCancel(Runnable)} to release its
+ * resources as soon as it's cancelled, for example closing a file that a
+ * blocking call is reading.
+ * <p>
+ * The token of the work running on the current thread is available from
+ * {@link #current()} or {@link AppWorker#getCancellationToken()}.
+ *
+ * @author Tobias Briones
+ */
+public final class CancellationToken {
+    private static final ThreadLocal<CancellationToken> current = new ThreadLocal<>();
+
+    /**
+     * Returns the token of the work running on the current thread. If the
+     * current thread is not running a work, it returns a token that is never
+     * cancelled.
+     *
+     * @return the token of the work running on the current thread
+     */
+    public static CancellationToken current() {
+        final CancellationToken token = current.get();
+        return token != null ? token : new CancellationToken();
+    }
+
+    static CancellationToken setCurrent(CancellationToken token) {
+        final CancellationToken previous = current.get();
+
+        if (token == null) {
+            current.remove();
+        }
+        else {
+            current.set(token);
+        }
+        return previous;
+    }
+
+    private final AtomicBoolean cancelled;
+    private final List<Runnable> callbacks;
+    private final CancellationToken parent;
+    private final Runnable parentCallback;
+
+    /**
+     * Constructor for a CancellationToken linked to a parent token. When the
+     * parent is cancelled, this token is cancelled too, but cancelling this
+     * token does not cancel the parent. The parent references this token until
+     * it's cancelled or {@link #unlink()} is called, so the child tokens of a
+     * long-lived parent must be unlinked when their work completes.
+     *
+     * @param parent parent token
+     */
+    public CancellationToken(CancellationToken parent) {
+        this.cancelled = new AtomicBoolean(false);
+        this.callbacks = new CopyOnWriteArrayList<>();
+        this.parent = parent;
+        this.parentCallback = this::cancel;
+
+        parent.onCancel(parentCallback);
+    }
+
+    /**
+     * Default constructor for CancellationToken.
+     */
+    public CancellationToken() {
+        this.cancelled = new AtomicBoolean(false);
+        this.callbacks = new CopyOnWriteArrayList<>();
+        this.parent = null;
+        this.parentCallback = null;
+    }
+
+    /**
+     * Returns {@code true} if and only if this token has been cancelled. It's
+     * cheap to call it on every iteration of a loop.
+     *
+     * @return {@code true} if and only if this token has been cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    /**
+     * Throws a {@link CancellationException} if this token has been
+     * cancelled.
+     *
+     * @throws CancellationException if this token has been cancelled
+     */
+    public void throwIfCancelled() {
+        if (cancelled.get()) {
+            throw new CancellationException("The work was cancelled");
+        }
+    }
+
+    /**
+     * Registers a callback to run when this token is cancelled. It's called
+     * from the thread that cancels the token, or right away if this token is
+     * already cancelled.
+     *
+     * @param callback callback to run on cancellation
+     */
+    public void onCancel(Runnable callback) {
+        callbacks.add(callback);
+
+        // It could've been cancelled before adding the callback
+        if (cancelled.get() && callbacks.remove(callback)) {
+            runCallback(callback);
+        }
+    }
+
+    /**
+     * Removes a callback registered with {@link #onCancel(Runnable)}, for
+     * example when the resource it releases was already released.
+     *
+     * @param callback callback to remove
+     */
+    public void removeOnCancel(Runnable callback) {
+        callbacks.remove(callback);
+    }
+
+    /**
+     * Registers the resource to be closed when this token is cancelled.
+     *
+     * @param closeable resource to close on cancellation
+     */
+    public void closeOnCancel(Closeable closeable) {
+        onCancel(() -> {
+            try {
+                closeable.close();
+            }
+            catch (IOException ignored) {}
+        });
+    }
+
+    /**
+     * Cancels this token and runs its callbacks. Cancelling a token more than
+     * once has no effect.
+     */
+    public void cancel() {
+        if (!cancelled.compareAndSet(false, true)) {
+            return;
+        }
+        unlink();
+
+        for (Runnable callback : callbacks) {
+            if (callbacks.remove(callback)) {
+                runCallback(callback);
+            }
+        }
+    }
+
+    /**
+     * Unlinks this token from its parent, so it's no longer cancelled with the
+     * parent and the parent no longer references it. It has no effect if this
+     * token has no parent.
+     */
+    public void unlink() {
+        if (parent != null) {
+            parent.removeOnCancel(parentCallback);
+        }
+    }
+
+    private static void runCallback(Runnable callback) {
+        try {
+            callback.run();
+        }
+        catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import java.util.Arrays;
+
+/**
+ * Immutable state of a resumable work at a given time. It has the progress of
+ * the work and a state blob defined by the work to continue from where it
+ * was, for example the index of the next file to process.
+ *
+ * @author Tobias Briones
+ * @see CheckpointStore
+ * @see ProgressWorkManager#checkpoint(java.util.function.Supplier)
+ */
+public final class Checkpoint {
+    private final long processed;
+    private final int size;
+    private final byte[] state;
+    private final long savedTime;
+
+    /**
+     * Constructor for Checkpoint.
+     *
+     * @param processed number of processed items
+     * @param size      number of items to process, or -1 if it's not set
+     * @param state     state of the work, or {@code null}
+     * @param savedTime time the checkpoint was taken in milliseconds since
+     *                  the epoch
+     */
+    public Checkpoint(long processed, int size, byte[] state, long savedTime) {
+        this.processed = processed;
+        this.size = size;
+        this.state = state != null ? state.clone() : new byte[0];
+        this.savedTime = savedTime;
+    }
+
+    /**
+     * Returns the number of processed items.
+     *
+     * @return the number of processed items
+     */
+    public long getProcessed() {
+        return processed;
+    }
+
+    /**
+     * Returns the number of items to process, or -1 if it's not set.
+     *
+     * @return the number of items to process
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns a copy of the state of the work.
+     *
+     * @return the state of the work, empty if it has none
+     */
+    public byte[] getState() {
+        return state.clone();
+    }
+
+    /**
+     * Returns the time the checkpoint was taken in milliseconds since the
+     * epoch.
+     *
+     * @return the time the checkpoint was taken
+     */
+    public long getSavedTime() {
+        return savedTime;
+    }
+
+    byte[] state() {
+        return state;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final Checkpoint that = (Checkpoint) o;
+        return processed == that.processed
+               && size == that.size
+               && savedTime == that.savedTime
+               && Arrays.equals(state, that.state);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Long.hashCode(processed);
+        result = 31 * result + size;
+        result = 31 * result + Long.hashCode(savedTime);
+        result = 31 * result + Arrays.hashCode(state);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "Checkpoint{" +
+               "processed=" + processed +
+               ", size=" + size +
+               ", stateLength=" + state.length +
+               ", savedTime=" + savedTime +
+               '}';
+    }
+}
@@ -0,0 +1,187 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Stores the last {@link Checkpoint} of a resumable work on a local file. The
+ * checkpoint is written to a temporary file on the same directory that is
+ * flushed to the disk and then moved over the previous one, so a crash while
+ * saving leaves either the previous or the new checkpoint, never a partial
+ * one. The file has a checksum, and a file that doesn't match it is ignored.
+ *
+ * @author Tobias Briones
+ * @see ProgressWorkManager#executeResumable(CheckpointStore,
+ * ResumableWorkRunnable, boolean)
+ */
+public final class CheckpointStore {
+    private static final int MAGIC = 0x6A444B43;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int CHECKSUM_SIZE = 8;
+    private final Path file;
+
+    /**
+     * Constructor for CheckpointStore.
+     *
+     * @param file file to store the checkpoint
+     */
+    public CheckpointStore(Path file) {
+        if (file == null) {
+            throw new NullPointerException("File must not be null");
+        }
+        this.file = file.toAbsolutePath();
+    }
+
+    /**
+     * Returns the file this store saves the checkpoint to.
+     *
+     * @return the checkpoint file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Returns {@code true} if and only if there's a saved checkpoint. The
+     * file is not validated, see {@link #load()}.
+     *
+     * @return {@code true} if and only if the checkpoint file exists
+     */
+    public boolean exists() {
+        return Files.isRegularFile(file);
+    }
+
+    /**
+     * Loads the saved checkpoint.
+     *
+     * @return the saved checkpoint, or {@code null} if there's no checkpoint
+     * or the file is corrupted
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public Checkpoint load() throws IOException {
+        final byte[] bytes;
+
+        try {
+            bytes = Files.readAllBytes(file);
+        }
+        catch (NoSuchFileException e) {
+            return null;
+        }
+        if (bytes.length < HEADER_SIZE + CHECKSUM_SIZE) {
+            return null;
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        final int contentLength = bytes.length - CHECKSUM_SIZE;
+
+        if (buffer.getLong(contentLength) != checksum(bytes, contentLength)
+            || buffer.getInt() != MAGIC
+            || buffer.getInt() != VERSION) {
+            return null;
+        }
+        final long processed = buffer.getLong();
+        final int size = buffer.getInt();
+        final long savedTime = buffer.getLong();
+        final int stateLength = buffer.getInt();
+
+        if (stateLength != contentLength - HEADER_SIZE) {
+            return null;
+        }
+        final byte[] state = new byte[stateLength];
+
+        buffer.get(state);
+        return new Checkpoint(processed, size, state, savedTime);
+    }
+
+    /**
+     * Saves the checkpoint atomically replacing the previous one.
+     *
+     * @param checkpoint checkpoint to save
+     *
+     * @throws IOException if an I/O error occurs, the previous checkpoint is
+     *                     kept
+     */
+    public void save(Checkpoint checkpoint) throws IOException {
+        final byte[] state = checkpoint.state();
+        final int contentLength = HEADER_SIZE + state.length;
+        final ByteBuffer buffer = ByteBuffer.allocate(contentLength + CHECKSUM_SIZE);
+
+        buffer.putInt(MAGIC)
+              .putInt(VERSION)
+              .putLong(checkpoint.getProcessed())
+              .putInt(checkpoint.getSize())
+              .putLong(checkpoint.getSavedTime())
+              .putInt(state.length)
+              .put(state)
+              .putLong(checksum(buffer.array(), contentLength));
+
+        // Through Buffer, ByteBuffer.flip() doesn't exist on Java 8
+        ((Buffer) buffer).flip();
+
+        final Path dir = file.getParent();
+        Files.createDirectories(dir);
+        final Path tmp = Files.createTempFile(dir, file.getFileName() + ".", ".tmp");
+
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            move(tmp);
+        }
+        finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Deletes the saved checkpoint if any.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Override
+    public String toString() {
+        return "CheckpointStore{" + "file=" + file + '}';
+    }
+
+    private void move(Path tmp) throws IOException {
+        try {
+            Files.move(
+                tmp,
+                file,
+                StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING
+            );
+        }
+        catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static long checksum(byte[] bytes, int length) {
+        final CRC32 crc = new CRC32();
+
+        crc.update(bytes, 0, length);
+        return crc.getValue();
+    }
+}
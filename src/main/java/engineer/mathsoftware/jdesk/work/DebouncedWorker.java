@@ -0,0 +1,217 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import javax.swing.*;
+
+/**
+ * Worker that executes only the latest of a burst of requests. A request waits
+ * for the debounce delay before executing, and it's superseded if another
+ * request arrives meanwhile. When a new request executes, the previous work is
+ * cancelled, and only the result of the latest work reaches the callback. It
+ * must be used from the EDT.
+ *
+ * @param <R> type of the work result
+ *
+ * @author Tobias Briones
+ * @see AppWorker
+ */
+public final class DebouncedWorker<R> {
+    /**
+     * Default debounce delay in milliseconds.
+     */
+    public static final int DEFAULT_DELAY = 250;
+    private final LoadingView loadingView;
+    private final WorkCallback<R> callback;
+    private final WorkExecutor executor;
+    private final Timer timer;
+    private WorkRunnable<R> pending;
+    private AppWorker<R, Void> current;
+    private long generation;
+
+    /**
+     * Constructor for DebouncedWorker.
+     *
+     * @param loadingView loading view
+     * @param callback    callback notified only for the latest work
+     * @param delayMillis debounce delay in milliseconds
+     * @param executor    executor to run the works on, or {@code null} to use
+     *                    the default {@link AppWorker} executor
+     */
+    public DebouncedWorker(
+        LoadingView loadingView,
+        WorkCallback<R> callback,
+        int delayMillis,
+        WorkExecutor executor
+    ) {
+        this.loadingView = loadingView;
+        this.callback = callback;
+        this.executor = executor;
+        this.timer = new Timer(delayMillis, e -> executePending());
+        this.pending = null;
+        this.current = null;
+        this.generation = 0L;
+
+        timer.setRepeats(false);
+    }
+
+    /**
+     * Constructor for DebouncedWorker with the default delay and executor.
+     *
+     * @param loadingView loading view
+     * @param callback    callback notified only for the latest work
+     */
+    public DebouncedWorker(LoadingView loadingView, WorkCallback<R> callback) {
+        this(loadingView, callback, DEFAULT_DELAY, null);
+    }
+
+    /**
+     * Sets the debounce delay.
+     *
+     * @param delayMillis debounce delay in milliseconds
+     */
+    public void setDelay(int delayMillis) {
+        timer.setInitialDelay(delayMillis);
+    }
+
+    /**
+     * Requests a work to execute after the debounce delay. If another request
+     * arrives meanwhile, this one is discarded. The running work is cancelled
+     * right away, so its result never reaches the callback.
+     *
+     * @param runnable work runnable
+     */
+    public void request(WorkRunnable<R> runnable) {
+        pending = runnable;
+
+        // The running work is stale as soon as a new request arrives
+        if (current != null) {
+            generation++;
+            cancelCurrent();
+        }
+
+        if (timer.getInitialDelay() <= 0) {
+            timer.stop();
+            executePending();
+        }
+        else {
+            timer.restart();
+        }
+    }
+
+    /**
+     * Discards the pending request and cancels the running work, if any. The
+     * callback is notified by {@link WorkCallback#workCancelled()}.
+     */
+    public void cancel() {
+        timer.stop();
+        pending = null;
+
+        // A work superseded by a pending request left the loading view running
+        if (current == null && loadingView.isRunning()) {
+            loadingView.end();
+        }
+        cancelCurrent();
+    }
+
+    private void executePending() {
+        final WorkRunnable<R> runnable = pending;
+
+        if (runnable == null) {
+            return;
+        }
+        pending = null;
+        generation++;
+
+        // The superseded work is stale now, so its callback is ignored
+        cancelCurrent();
+        final Latest latest = new Latest(generation);
+        final AppWorker<R, Void> worker = new AppWorker<>(
+            latest,
+            latest,
+            null,
+            executor
+        );
+        current = worker;
+
+        worker.execute(runnable);
+    }
+
+    private void cancelCurrent() {
+        final AppWorker<R, Void> worker = current;
+        current = null;
+
+        if (worker != null) {
+            worker.cancel();
+        }
+    }
+
+    /**
+     * Forwards the loading view and callback events of the latest work only,
+     * so a superseded work can't end the loading view of the new one.
+     */
+    private final class Latest implements LoadingView, WorkCallback<R> {
+        private final long workGeneration;
+
+        private Latest(long workGeneration) {
+            this.workGeneration = workGeneration;
+        }
+
+        private boolean isLatest() {
+            return workGeneration == generation;
+        }
+
+        @Override
+        public boolean isRunning() {
+            return loadingView.isRunning();
+        }
+
+        @Override
+        public void start() {
+            if (isLatest()) {
+                loadingView.start();
+            }
+        }
+
+        @Override
+        public void end() {
+            if (isLatest()) {
+                loadingView.end();
+            }
+        }
+
+        @Override
+        public void workFinished(R result) {
+            if (isLatest()) {
+                current = null;
+                callback.workFinished(result);
+            }
+        }
+
+        @Override
+        public void workFailed(Exception exception) {
+            if (isLatest()) {
+                current = null;
+                callback.workFailed(exception);
+            }
+        }
+
+        @Override
+        public void workCancelled() {
+            if (isLatest()) {
+                current = null;
+                callback.workCancelled();
+            }
+        }
+
+        @Override
+        public void workTimedOut() {
+            if (isLatest()) {
+                current = null;
+                callback.workTimedOut();
+            }
+        }
+    }
+}
@@ -0,0 +1,265 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detects stalls of the event dispatch thread, that is, when a listener, a
+ * {@link WorkCallback} or any other code running on the EDT blocks it for
+ * longer than a threshold. The watchdog posts a ping to the EDT every half
+ * threshold, so its overhead while the EDT is responsive is an empty event per
+ * half threshold. When the EDT has not answered for the threshold, the stack
+ * of the EDT is sampled until it responds, and the {@link Stall} is reported
+ * to a {@link StallSink} from the watchdog thread. A stall is measured from
+ * the last time the EDT answered a ping, so it's detected about the threshold
+ * after it began.
+ *
+ * @author Tobias Briones
+ * @see FileStallSink
+ */
+public final class EdtWatchdog {
+    /**
+     * Default stall threshold in milliseconds.
+     */
+    public static final long DEFAULT_THRESHOLD = 500L;
+
+    /**
+     * Maximum number of stack samples taken for a stall. If the stall lasts
+     * longer, it's reported as ongoing once the samples are taken.
+     */
+    public static final int MAX_SAMPLES = 100;
+    private static final int SAMPLES_PER_THRESHOLD = 10;
+    private static final int PINGS_PER_THRESHOLD = 2;
+    private static final String EDT_NAME_PREFIX = "AWT-EventQueue";
+    private final long thresholdNanos;
+    private final long sampleMillis;
+    private final StallSink sink;
+    private final Object lock;
+    private Thread thread;
+    private volatile Thread edt;
+    private volatile long pongTime;
+
+    /**
+     * Constructor for EdtWatchdog.
+     *
+     * @param thresholdMillis minimum duration of a stall in milliseconds,
+     *                        greater than 0
+     * @param sink            sink to report the stalls to
+     */
+    public EdtWatchdog(long thresholdMillis, StallSink sink) {
+        if (thresholdMillis < 1L) {
+            throw new IllegalArgumentException("Threshold must be positive");
+        }
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.sampleMillis = Math.max(1L, thresholdMillis / SAMPLES_PER_THRESHOLD);
+        this.sink = sink;
+        this.lock = new Object();
+        this.thread = null;
+        this.edt = null;
+        this.pongTime = 0L;
+    }
+
+    /**
+     * Returns {@code true} if and only if this watchdog is running.
+     *
+     * @return {@code true} if and only if this watchdog is running
+     */
+    public boolean isRunning() {
+        synchronized (lock) {
+            return thread != null;
+        }
+    }
+
+    /**
+     * Starts watching the EDT on a daemon thread. Starting a running watchdog
+     * has no effect.
+     */
+    public void start() {
+        synchronized (lock) {
+            if (thread != null) {
+                return;
+            }
+            thread = new Thread(this::watch, "jdesk-edt-watchdog");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Stops watching the EDT.
+     */
+    public void stop() {
+        synchronized (lock) {
+            if (thread != null) {
+                thread.interrupt();
+                thread = null;
+            }
+        }
+    }
+
+    private void watch() {
+        final long pingNanos = thresholdNanos / PINGS_PER_THRESHOLD;
+        long pingTime = System.nanoTime();
+
+        // The EDT is taken as responsive when the watchdog starts
+        pongTime = pingTime;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                final long now = System.nanoTime();
+                final long lastPong = pongTime;
+                final boolean isAnswered = lastPong - pingTime >= 0L;
+
+                if (isAnswered && now - pingTime >= pingNanos) {
+                    pingTime = now;
+                    SwingUtilities.invokeLater(this::pong);
+                }
+                else if (!isAnswered && now - lastPong >= thresholdNanos) {
+                    sampleStall(pingTime, lastPong);
+                }
+                Thread.sleep(sampleMillis);
+            }
+        }
+        catch (InterruptedException ignored) {}
+    }
+
+    private void pong() {
+        edt = Thread.currentThread();
+        pongTime = System.nanoTime();
+    }
+
+    private void sampleStall(long pingTime, long lastPong)
+        throws InterruptedException {
+        final Thread stalled = edt != null ? edt : findEdt();
+        final List<StackTraceElement[]> samples = new ArrayList<>();
+
+        while (pongTime - pingTime < 0L && samples.size() < MAX_SAMPLES) {
+            if (stalled != null) {
+                samples.add(stalled.getStackTrace());
+            }
+            Thread.sleep(sampleMillis);
+        }
+        final boolean isOngoing = pongTime - pingTime < 0L;
+        final long end = isOngoing ? System.nanoTime() : pongTime;
+
+        report(new Stall(end - lastPong, isOngoing, samples));
+
+        // Don't report an ongoing stall more than once
+        while (pongTime - pingTime < 0L) {
+            Thread.sleep(sampleMillis);
+        }
+    }
+
+    private static Thread findEdt() {
+        // The EDT stalled before answering any ping, so it's found by name
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith(EDT_NAME_PREFIX)) {
+                return thread;
+            }
+        }
+        return null;
+    }
+
+    private void report(Stall stall) {
+        try {
+            sink.report(stall);
+        }
+        catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Reports the stalls detected by an {@link EdtWatchdog}. It's called from
+     * the watchdog thread, so it can perform blocking I/O.
+     */
+    @FunctionalInterface
+    public interface StallSink {
+        /**
+         * Reports a stall of the EDT.
+         *
+         * @param stall stall detected
+         */
+        void report(Stall stall);
+    }
+
+    /**
+     * A stall of the EDT with the stack samples taken while it lasted.
+     */
+    public static final class Stall {
+        private final long duration;
+        private final boolean isOngoing;
+        private final List<StackTraceElement[]> samples;
+
+        private Stall(
+            long duration,
+            boolean isOngoing,
+            List<StackTraceElement[]> samples
+        ) {
+            this.duration = duration;
+            this.isOngoing = isOngoing;
+            this.samples = Collections.unmodifiableList(samples);
+        }
+
+        /**
+         * Returns the duration of the stall in nanoseconds, it's measured
+         * from the last time the EDT answered a ping.
+         *
+         * @return the duration of the stall
+         */
+        public long getDuration() {
+            return duration;
+        }
+
+        /**
+         * Returns {@code true} if the EDT was still blocked when the stall was
+         * reported, after taking {@link #MAX_SAMPLES} samples.
+         *
+         * @return {@code true} if and only if the stall was ongoing
+         */
+        public boolean isOngoing() {
+            return isOngoing;
+        }
+
+        /**
+         * Returns the stack samples of the EDT taken during the stall, in
+         * order.
+         *
+         * @return the stack samples
+         */
+        public List<StackTraceElement[]> getSamples() {
+            return samples;
+        }
+
+        /**
+         * Returns the distinct stacks sampled during the stall with the number
+         * of samples of each, from the most to the least sampled. The first one
+         * is where the EDT spent most of the stall.
+         *
+         * @return the distinct stacks with their number of samples
+         */
+        public Map<List<StackTraceElement>, Integer> getHotStacks() {
+            final Map<List<StackTraceElement>, Integer> counts = new LinkedHashMap<>();
+            final Map<List<StackTraceElement>, Integer> sorted = new LinkedHashMap<>();
+
+            for (StackTraceElement[] sample : samples) {
+                counts.merge(Arrays.asList(sample), 1, Integer::sum);
+            }
+            counts.entrySet()
+                  .stream()
+                  .sorted(Map.Entry.<List<StackTraceElement>, Integer>comparingByValue()
+                                   .reversed())
+                  .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+            return sorted;
+        }
+    }
+}
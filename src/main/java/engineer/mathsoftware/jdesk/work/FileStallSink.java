@@ -0,0 +1,81 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stall sink that appends the stalls of the EDT to a text file. Each stall
+ * is written with its duration and the distinct sampled stacks, the most
+ * sampled first.
+ *
+ * @author Tobias Briones
+ * @see EdtWatchdog
+ */
+public final class FileStallSink implements EdtWatchdog.StallSink {
+    /**
+     * Default file to append the stalls to.
+     */
+    public static final String DEFAULT_FILE = "edt-stalls.log";
+    private static final int MAX_STACKS = 5;
+    private final Path path;
+
+    /**
+     * Constructor for FileStallSink.
+     *
+     * @param path file to append the stalls to
+     */
+    public FileStallSink(Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public void report(EdtWatchdog.Stall stall) {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(
+            path,
+            StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.APPEND
+        ))) {
+            write(writer, stall);
+        }
+        catch (IOException e) {
+            System.err.println("Fail to write EDT stall to " + path);
+        }
+    }
+
+    private static void write(PrintWriter writer, EdtWatchdog.Stall stall) {
+        final long millis = TimeUnit.NANOSECONDS.toMillis(stall.getDuration());
+        final int sampleCount = stall.getSamples().size();
+        int stackCount = 0;
+
+        writer.println(
+            LocalDateTime.now() + " EDT stalled for " + millis + "ms"
+            + (stall.isOngoing() ? " (ongoing)" : "")
+            + ", " + sampleCount + " samples"
+        );
+        for (Map.Entry<List<StackTraceElement>, Integer> entry :
+            stall.getHotStacks().entrySet()) {
+            if (stackCount++ == MAX_STACKS) {
+                break;
+            }
+            writer.println("  " + entry.getValue() + "/" + sampleCount + " samples:");
+
+            for (StackTraceElement frame : entry.getKey()) {
+                writer.println("    at " + frame);
+            }
+        }
+        writer.println();
+    }
+}
@@ -0,0 +1,417 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process {@link WorkMetrics} that aggregates the events by work name into
+ * histograms. Recording an event is lock-free and allocation-free once the
+ * work name was seen, so it can stay enabled on production builds. The
+ * histograms have power of two buckets, so the percentiles are an upper bound
+ * that is at most twice the real value.
+ *
+ * @author Tobias Briones
+ */
+public final class HistogramWorkMetrics implements WorkMetrics {
+    private final ConcurrentMap<String, Stats> stats;
+
+    /**
+     * Default constructor for HistogramWorkMetrics.
+     */
+    public HistogramWorkMetrics() {
+        this.stats = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the stats of the given work name, or {@code null} if no work
+     * with that name has been reported.
+     *
+     * @param name work name
+     *
+     * @return the stats of the work name
+     */
+    public Stats getStats(String name) {
+        return stats.get(name);
+    }
+
+    /**
+     * Returns the stats of all the reported works sorted by name.
+     *
+     * @return the stats of all the reported works
+     */
+    public Map<String, Stats> getAllStats() {
+        return Collections.unmodifiableMap(new TreeMap<>(stats));
+    }
+
+    /**
+     * Removes all the recorded stats.
+     */
+    public void reset() {
+        stats.clear();
+    }
+
+    @Override
+    public void workEnqueued(String name) {
+        statsOf(name).enqueued.increment();
+    }
+
+    @Override
+    public void workStarted(String name, long queueTime) {
+        statsOf(name).queueTime.record(queueTime);
+    }
+
+    @Override
+    public void workCompleted(String name, Outcome outcome, long runTime) {
+        final Stats s = statsOf(name);
+
+        switch (outcome) {
+            case FINISHED:
+                s.finished.increment();
+                break;
+            case FAILED:
+                s.failed.increment();
+                break;
+            case CANCELLED:
+                s.cancelled.increment();
+                break;
+            case TIMED_OUT:
+                s.timedOut.increment();
+                break;
+        }
+        if (runTime > 0L) {
+            s.runTime.record(runTime);
+        }
+    }
+
+    @Override
+    public void workRetried(String name, int attempt, Exception exception) {
+        statsOf(name).retried.increment();
+    }
+
+    @Override
+    public void callbackInvoked(String name, long callbackLag) {
+        statsOf(name).callbackLag.record(callbackLag);
+    }
+
+    @Override
+    public void updatesReported(
+        String name,
+        long posted,
+        long delivered,
+        long runTime
+    ) {
+        final Stats s = statsOf(name);
+
+        s.posted.add(posted);
+        s.delivered.add(delivered);
+        if (runTime > 0L) {
+            s.updateRate.record(posted * TimeUnit.SECONDS.toNanos(1L) / runTime);
+        }
+    }
+
+    /**
+     * Returns a human-readable report of all the stats, one line per work
+     * name, with the times in milliseconds.
+     *
+     * @return a report of all the stats
+     */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+
+        for (Map.Entry<String, Stats> entry : getAllStats().entrySet()) {
+            sb.append(entry.getKey())
+              .append(": ")
+              .append(entry.getValue())
+              .append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    private Stats statsOf(String name) {
+        final Stats s = stats.get(name);
+        return s != null ? s : stats.computeIfAbsent(name, k -> new Stats());
+    }
+
+    /**
+     * Aggregated stats of the works with the same name.
+     */
+    public static final class Stats {
+        private final LongAdder enqueued;
+        private final LongAdder finished;
+        private final LongAdder failed;
+        private final LongAdder cancelled;
+        private final LongAdder timedOut;
+        private final LongAdder retried;
+        private final LongAdder posted;
+        private final LongAdder delivered;
+        private final Histogram queueTime;
+        private final Histogram runTime;
+        private final Histogram callbackLag;
+        private final Histogram updateRate;
+
+        private Stats() {
+            this.enqueued = new LongAdder();
+            this.finished = new LongAdder();
+            this.failed = new LongAdder();
+            this.cancelled = new LongAdder();
+            this.timedOut = new LongAdder();
+            this.retried = new LongAdder();
+            this.posted = new LongAdder();
+            this.delivered = new LongAdder();
+            this.queueTime = new Histogram();
+            this.runTime = new Histogram();
+            this.callbackLag = new Histogram();
+            this.updateRate = new Histogram();
+        }
+
+        /**
+         * Returns the number of works submitted to their executor.
+         *
+         * @return the number of enqueued works
+         */
+        public long getEnqueued() {
+            return enqueued.sum();
+        }
+
+        /**
+         * Returns the number of works that finished successfully.
+         *
+         * @return the number of finished works
+         */
+        public long getFinished() {
+            return finished.sum();
+        }
+
+        /**
+         * Returns the number of works that failed.
+         *
+         * @return the number of failed works
+         */
+        public long getFailed() {
+            return failed.sum();
+        }
+
+        /**
+         * Returns the number of works that were cancelled.
+         *
+         * @return the number of cancelled works
+         */
+        public long getCancelled() {
+            return cancelled.sum();
+        }
+
+        /**
+         * Returns the number of works that were cancelled because they timed
+         * out.
+         *
+         * @return the number of timed out works
+         */
+        public long getTimedOut() {
+            return timedOut.sum();
+        }
+
+        /**
+         * Returns the number of failed attempts that were retried.
+         *
+         * @return the number of retries
+         */
+        public long getRetried() {
+            return retried.sum();
+        }
+
+        /**
+         * Returns the number of updates posted by the works.
+         *
+         * @return the number of posted updates
+         */
+        public long getPosted() {
+            return posted.sum();
+        }
+
+        /**
+         * Returns the number of updates delivered to the UI after coalescing.
+         *
+         * @return the number of delivered updates
+         */
+        public long getDelivered() {
+            return delivered.sum();
+        }
+
+        /**
+         * Returns the histogram of the time in nanoseconds the works waited on
+         * the executor queue.
+         *
+         * @return the queue time histogram
+         */
+        public Histogram getQueueTime() {
+            return queueTime;
+        }
+
+        /**
+         * Returns the histogram of the time in nanoseconds the works ran.
+         *
+         * @return the run time histogram
+         */
+        public Histogram getRunTime() {
+            return runTime;
+        }
+
+        /**
+         * Returns the histogram of the time in nanoseconds from the work
+         * completion until the EDT invoked the callback.
+         *
+         * @return the callback lag histogram
+         */
+        public Histogram getCallbackLag() {
+            return callbackLag;
+        }
+
+        /**
+         * Returns the histogram of the updates per second posted by each
+         * work.
+         *
+         * @return the update rate histogram
+         */
+        public Histogram getUpdateRate() {
+            return updateRate;
+        }
+
+        @Override
+        public String toString() {
+            return "enqueued=" + getEnqueued()
+                   + ", finished=" + getFinished()
+                   + ", failed=" + getFailed()
+                   + ", cancelled=" + getCancelled()
+                   + ", timedOut=" + getTimedOut()
+                   + ", retried=" + getRetried()
+                   + ", queue=" + toMillis(queueTime)
+                   + ", run=" + toMillis(runTime)
+                   + ", callbackLag=" + toMillis(callbackLag)
+                   + ", updates=" + getPosted() + "/" + getDelivered();
+        }
+
+        private static String toMillis(Histogram histogram) {
+            return String.format(
+                "[p50=%.2fms, p99=%.2fms, max=%.2fms]",
+                histogram.getPercentile(0.5) / 1e6,
+                histogram.getPercentile(0.99) / 1e6,
+                histogram.getMax() / 1e6
+            );
+        }
+    }
+
+    /**
+     * Histogram of non-negative values with power of two buckets.
+     */
+    public static final class Histogram {
+        private static final int BUCKETS = 64;
+        private final LongAdder[] buckets;
+        private final LongAdder sum;
+
+        private Histogram() {
+            this.buckets = new LongAdder[BUCKETS];
+            this.sum = new LongAdder();
+
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * Records a value, negative values are recorded as 0.
+         *
+         * @param value value to record
+         */
+        public void record(long value) {
+            final long v = Math.max(value, 0L);
+
+            buckets[BUCKETS - Long.numberOfLeadingZeros(v)].increment();
+            sum.add(v);
+        }
+
+        /**
+         * Returns the number of recorded values.
+         *
+         * @return the number of recorded values
+         */
+        public long getCount() {
+            long count = 0L;
+
+            for (LongAdder bucket : buckets) {
+                count += bucket.sum();
+            }
+            return count;
+        }
+
+        /**
+         * Returns the mean of the recorded values, or 0 if there are none.
+         *
+         * @return the mean of the recorded values
+         */
+        public double getMean() {
+            final long count = getCount();
+            return count == 0L ? 0.0 : (double) sum.sum() / count;
+        }
+
+        /**
+         * Returns the upper bound of the bucket holding the given percentile,
+         * or 0 if there are no recorded values.
+         *
+         * @param percentile percentile in [0, 1]
+         *
+         * @return the upper bound of the percentile
+         */
+        public long getPercentile(double percentile) {
+            final long[] counts = new long[BUCKETS];
+            long count = 0L;
+
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets[i].sum();
+                count += counts[i];
+            }
+            if (count == 0L) {
+                return 0L;
+            }
+            final long rank = Math.max(1L, (long) Math.ceil(percentile * count));
+            long seen = 0L;
+
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+
+                if (seen >= rank) {
+                    return upperBound(i);
+                }
+            }
+            return upperBound(BUCKETS - 1);
+        }
+
+        /**
+         * Returns the upper bound of the bucket holding the maximum recorded
+         * value, or 0 if there are no recorded values.
+         *
+         * @return the upper bound of the maximum recorded value
+         */
+        public long getMax() {
+            for (int i = BUCKETS - 1; i >= 0; i--) {
+                if (buckets[i].sum() > 0L) {
+                    return upperBound(i);
+                }
+            }
+            return 0L;
+        }
+
+        private static long upperBound(int bucket) {
+            return bucket == BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1L;
+        }
+    }
+}
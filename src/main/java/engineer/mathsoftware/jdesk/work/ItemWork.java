@@ -0,0 +1,30 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+/**
+ * Work performed on a single item of a partitioned work.
+ *
+ * @param <T> type of the items to process
+ * @param <P> type of the result of processing one item
+ *
+ * @author Tobias Briones
+ * @see ProgressWorkManager#executePartitioned(java.util.List, ItemWork,
+ * java.util.function.Function)
+ */
+@FunctionalInterface
+public interface ItemWork<T, P> {
+    /**
+     * Called to process one item. It's called concurrently from several
+     * threads for different items.
+     *
+     * @param item item to process
+     *
+     * @return the result of processing the item
+     *
+     * @throws Exception if something wrong happened when processing the item
+     */
+    P run(T item) throws Exception;
+}
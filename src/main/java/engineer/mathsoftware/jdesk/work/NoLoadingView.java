@@ -0,0 +1,28 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+/**
+ * Loading view that shows nothing, for the works that are not attached to a
+ * view.
+ *
+ * @author Tobias Briones
+ */
+final class NoLoadingView implements LoadingView {
+    static final NoLoadingView INSTANCE = new NoLoadingView();
+
+    private NoLoadingView() {}
+
+    @Override
+    public boolean isRunning() {
+        return false;
+    }
+
+    @Override
+    public void start() {}
+
+    @Override
+    public void end() {}
+}
@@ -0,0 +1,127 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Work that splits a list of items into partitions processed on a {@link
+ * ForkJoinPool}, the idle threads steal the pending partitions of the busy
+ * ones. The item results are aggregated in the items order.
+ *
+ * @param <T> type of the items to process
+ * @param <P> type of the result of processing one item
+ * @param <R> type of the aggregated result
+ *
+ * @author Tobias Briones
+ */
+final class PartitionedWork<T, P, R> implements WorkRunnable<R> {
+    private static final int PARTITIONS_PER_THREAD = 4;
+    private final ForkJoinPool pool;
+    private final List<T> items;
+    private final ItemWork<T, P> itemWork;
+    private final Function<List<P>, R> aggregator;
+    private final Runnable itemDone;
+    private final CancellationToken token;
+
+    PartitionedWork(
+        ForkJoinPool pool,
+        List<T> items,
+        ItemWork<T, P> itemWork,
+        Function<List<P>, R> aggregator,
+        Runnable itemDone,
+        CancellationToken token
+    ) {
+        this.pool = pool;
+        this.items = items;
+        this.itemWork = itemWork;
+        this.aggregator = aggregator;
+        this.itemDone = itemDone;
+        this.token = token;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public R run() throws Exception {
+        final Object[] results = new Object[items.size()];
+        final AtomicReference<Exception> failure = new AtomicReference<>(null);
+        final int partitions = pool.getParallelism() * PARTITIONS_PER_THREAD;
+        final int threshold = Math.max(1, items.size() / partitions);
+
+        pool.invoke(new Partition(0, items.size(), threshold, results, failure));
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        if (token.isCancelled()) {
+            throw new InterruptedException("The work was cancelled");
+        }
+        return aggregator.apply((List<P>) Arrays.asList(results));
+    }
+
+    private final class Partition extends RecursiveAction {
+        private static final long serialVersionUID = 4150254651829478071L;
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final Object[] results;
+        private final AtomicReference<Exception> failure;
+
+        private Partition(
+            int from,
+            int to,
+            int threshold,
+            Object[] results,
+            AtomicReference<Exception> failure
+        ) {
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.results = results;
+            this.failure = failure;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                processItems();
+                return;
+            }
+            final int middle = (from + to) >>> 1;
+
+            invokeAll(
+                new Partition(from, middle, threshold, results, failure),
+                new Partition(middle, to, threshold, results, failure)
+            );
+        }
+
+        private void processItems() {
+            final CancellationToken previous = CancellationToken.setCurrent(token);
+
+            try {
+                for (int i = from; i < to; i++) {
+                    if (failure.get() != null || token.isCancelled()) {
+                        return;
+                    }
+                    try {
+                        results[i] = itemWork.run(items.get(i));
+                    }
+                    catch (Exception e) {
+                        failure.compareAndSet(null, e);
+                        return;
+                    }
+                    itemDone.run();
+                }
+            }
+            finally {
+                CancellationToken.setCurrent(previous);
+            }
+        }
+    }
+}
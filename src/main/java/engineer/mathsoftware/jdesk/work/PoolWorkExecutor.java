@@ -0,0 +1,305 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link WorkExecutor} backed by a fixed number of named daemon threads and a
+ * bounded queue. When the queue is full the submitted task is handled by the
+ * executor {@link RejectionPolicy}. It can be paused, so the queued tasks wait
+ * until it's resumed, while the running tasks continue.
+ *
+ * @author Tobias Briones
+ * @see WorkExecutors
+ */
+public final class PoolWorkExecutor implements WorkExecutor {
+    /**
+     * Defines what to do with a task submitted when the queue is full.
+     */
+    public enum RejectionPolicy {
+        /**
+         * Throws a {@link java.util.concurrent.RejectedExecutionException}.
+         */
+        ABORT,
+
+        /**
+         * Runs the task on the submitting thread, slowing down the producer.
+         */
+        CALLER_RUNS,
+
+        /**
+         * Cancels the oldest queued task and queues the new one, the cancelled
+         * work is notified by {@link WorkCallback#workCancelled()}.
+         */
+        DISCARD_OLDEST
+    }
+
+    /**
+     * Default capacity of the executor queue.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    private static final long KEEP_ALIVE_SECONDS = 30L;
+    private final String name;
+    private final PausableExecutor executor;
+
+    /**
+     * Constructor for PoolWorkExecutor.
+     *
+     * @param name          executor name, used to name its threads
+     * @param threads       maximum number of threads, greater than 0
+     * @param queueCapacity maximum number of queued tasks, greater than 0
+     * @param policy        policy to apply when the queue is full
+     */
+    public PoolWorkExecutor(
+        String name,
+        int threads,
+        int queueCapacity,
+        RejectionPolicy policy
+    ) {
+        if (threads < 1 || queueCapacity < 1) {
+            final String msg = "Threads and queue capacity must be positive";
+            throw new IllegalArgumentException(msg);
+        }
+        this.name = name;
+        this.executor = new PausableExecutor(
+            threads,
+            threads,
+            KEEP_ALIVE_SECONDS,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new NamedThreadFactory(name),
+            newRejectedExecutionHandler(policy)
+        );
+
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Constructor for PoolWorkExecutor with the default queue capacity and
+     * {@link RejectionPolicy#ABORT} policy.
+     *
+     * @param name    executor name, used to name its threads
+     * @param threads maximum number of threads, greater than 0
+     */
+    public PoolWorkExecutor(String name, int threads) {
+        this(name, threads, DEFAULT_QUEUE_CAPACITY, RejectionPolicy.ABORT);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the maximum number of threads of this executor.
+     *
+     * @return the maximum number of threads
+     */
+    public int getThreads() {
+        return executor.getMaximumPoolSize();
+    }
+
+    /**
+     * Returns the approximate number of threads that are running tasks.
+     *
+     * @return the approximate number of active threads
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Returns the number of tasks waiting to be executed.
+     *
+     * @return the number of queued tasks
+     */
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Returns the approximate number of tasks that have completed execution.
+     *
+     * @return the approximate number of completed tasks
+     */
+    public long getCompletedTaskCount() {
+        return executor.getCompletedTaskCount();
+    }
+
+    /**
+     * Returns {@code true} if and only if this executor is paused.
+     *
+     * @return {@code true} if and only if this executor is paused
+     */
+    public boolean isPaused() {
+        return executor.isPaused();
+    }
+
+    /**
+     * Pauses or resumes this executor. While it's paused, the tasks are
+     * queued but not started, and the running tasks continue.
+     *
+     * @param isPaused {@code true} to pause this executor
+     */
+    public void setPaused(boolean isPaused) {
+        executor.setPaused(isPaused);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(command);
+    }
+
+    /**
+     * Shuts down this executor, it's resumed first, so the queued tasks are
+     * executed.
+     */
+    @Override
+    public void shutdown() {
+        executor.setPaused(false);
+        executor.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return "PoolWorkExecutor{" +
+               "name='" + name + '\'' +
+               ", threads=" + getThreads() +
+               ", active=" + getActiveCount() +
+               ", queued=" + getQueueSize() +
+               '}';
+    }
+
+    private static RejectedExecutionHandler newRejectedExecutionHandler(
+        RejectionPolicy policy
+    ) {
+        switch (policy) {
+            case CALLER_RUNS:
+                return new ThreadPoolExecutor.CallerRunsPolicy();
+
+            case DISCARD_OLDEST:
+                return new DiscardOldestHandler();
+
+            default:
+                return new ThreadPoolExecutor.AbortPolicy();
+        }
+    }
+
+    private static final class PausableExecutor extends ThreadPoolExecutor {
+        private final ReentrantLock pauseLock;
+        private final Condition resumed;
+        private boolean isPaused;
+
+        private PausableExecutor(
+            int corePoolSize,
+            int maximumPoolSize,
+            long keepAliveTime,
+            TimeUnit unit,
+            ArrayBlockingQueue<Runnable> workQueue,
+            ThreadFactory threadFactory,
+            RejectedExecutionHandler handler
+        ) {
+            super(
+                corePoolSize,
+                maximumPoolSize,
+                keepAliveTime,
+                unit,
+                workQueue,
+                threadFactory,
+                handler
+            );
+            this.pauseLock = new ReentrantLock();
+            this.resumed = pauseLock.newCondition();
+            this.isPaused = false;
+        }
+
+        private boolean isPaused() {
+            pauseLock.lock();
+            try {
+                return isPaused;
+            }
+            finally {
+                pauseLock.unlock();
+            }
+        }
+
+        private void setPaused(boolean isPaused) {
+            pauseLock.lock();
+            try {
+                this.isPaused = isPaused;
+
+                if (!isPaused) {
+                    resumed.signalAll();
+                }
+            }
+            finally {
+                pauseLock.unlock();
+            }
+        }
+
+        @Override
+        protected void beforeExecute(Thread t, Runnable r) {
+            super.beforeExecute(t, r);
+            pauseLock.lock();
+            try {
+                while (isPaused) {
+                    resumed.await();
+                }
+            }
+            catch (InterruptedException e) {
+                t.interrupt();
+            }
+            finally {
+                pauseLock.unlock();
+            }
+        }
+    }
+
+    private static final class DiscardOldestHandler implements RejectedExecutionHandler {
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor e) {
+            if (e.isShutdown()) {
+                return;
+            }
+            final Runnable oldest = e.getQueue().poll();
+
+            // Cancel it, so the AppWorker notifies its callback on the EDT
+            if (oldest instanceof Future) {
+                ((Future<?>) oldest).cancel(false);
+            }
+            e.execute(r);
+        }
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+        private final String name;
+        private final AtomicInteger count;
+
+        private NamedThreadFactory(String name) {
+            this.name = name;
+            this.count = new AtomicInteger(0);
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            final Thread thread = new Thread(
+                r,
+                name + "-" + count.incrementAndGet()
+            );
+
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
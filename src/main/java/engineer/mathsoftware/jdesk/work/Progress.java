@@ -4,9 +4,130 @@
 
 package engineer.mathsoftware.jdesk.work;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Progress of a process of a number of items. It can be counted up from
+ * several threads at once, the processed items are kept on a striped counter,
+ * so the threads do not contend on it. Call {@link #snapshot()} to get an
+ * immutable view of the progress to display on the UI.
+ *
+ * @author Tobias Briones
+ */
 public final class Progress {
-    private int size;
-    private int i;
+    /**
+     * Immutable state of a {@link Progress} at a given time.
+     */
+    public static final class Snapshot {
+        private final long processed;
+        private final int size;
+        private final long elapsedNanos;
+        private final long resumed;
+
+        private Snapshot(
+            long processed,
+            int size,
+            long elapsedNanos,
+            long resumed
+        ) {
+            this.processed = processed;
+            this.size = size;
+            this.elapsedNanos = elapsedNanos;
+            this.resumed = resumed;
+        }
+
+        /**
+         * Returns the number of processed items.
+         *
+         * @return the number of processed items
+         */
+        public long getProcessed() {
+            return processed;
+        }
+
+        /**
+         * Returns the number of items to process, or -1 if it's not set.
+         *
+         * @return the number of items to process
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * Returns the progress, see {@link Progress#getProgress()}.
+         *
+         * @return the progress, float form 0 to 1 inclusive
+         */
+        public float getProgress() {
+            return computeProgress(processed, size);
+        }
+
+        /**
+         * Returns the progress in percentage, see {@link
+         * Progress#getProgressPercentage()}.
+         *
+         * @return the progress in percentage, float form 0 to 100 inclusive
+         */
+        public float getProgressPercentage() {
+            return getProgress() * 100;
+        }
+
+        /**
+         * Returns the time elapsed since the process started in milliseconds.
+         *
+         * @return the elapsed time in milliseconds
+         */
+        public long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+
+        /**
+         * Returns the average number of items processed per second. The items
+         * of a resumed process that were processed before resuming are not
+         * counted.
+         *
+         * @return the items processed per second, or 0 if no time has elapsed
+         */
+        public double getRate() {
+            if (elapsedNanos <= 0) {
+                return 0;
+            }
+            return (processed - resumed) / (elapsedNanos / 1e9);
+        }
+
+        /**
+         * Returns the estimated time to finish the process in milliseconds,
+         * based on the average rate.
+         *
+         * @return the estimated time remaining in milliseconds, or -1 if it
+         * can't be estimated yet
+         */
+        public long getEtaMillis() {
+            final double rate = getRate();
+
+            if (size == -1 || rate <= 0) {
+                return -1;
+            }
+            final long remaining = Math.max(0, size - processed);
+            return (long) (remaining / rate * 1000);
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{" +
+                   "processed=" + processed +
+                   ", size=" + size +
+                   ", elapsedMillis=" + getElapsedMillis() +
+                   '}';
+        }
+    }
+
+    private final LongAdder i;
+    private volatile int size;
+    private volatile long startTime;
+    private volatile long resumed;
 
     /**
      * Constructor for Progress with the size of the elements to process.
@@ -14,8 +135,10 @@ public final class Progress {
      * @param size size
      */
     public Progress(int size) {
+        this.i = new LongAdder();
         this.size = size;
-        this.i = 0;
+        this.startTime = System.nanoTime();
+        this.resumed = 0L;
     }
 
     /**
@@ -33,11 +156,7 @@ public final class Progress {
      * @return the progress, float form 0 to 1 inclusive
      */
     public float getProgress() {
-        if (size == -1) {
-            return 0;
-        }
-        final float progress = (float) i / size;
-        return (progress <= 1) ? progress : 1;
+        return computeProgress(i.sum(), size);
     }
 
     /**
@@ -52,32 +171,75 @@ public final class Progress {
     }
 
     /**
-     * Sets the number of elements to be processed.
+     * Returns an immutable snapshot of the current progress. The snapshot is
+     * consistent with itself but the counter might be updated concurrently
+     * while it's taken.
+     *
+     * @return a snapshot of the current progress
+     */
+    public Snapshot snapshot() {
+        final int currentSize = size;
+        return new Snapshot(
+            i.sum(),
+            currentSize,
+            System.nanoTime() - startTime,
+            resumed
+        );
+    }
+
+    /**
+     * Sets the number of elements to be processed. It also resets the
+     * processed items and the elapsed time, so it should not be called while
+     * other threads are counting up.
      *
      * @param size size, integer greater than 0, otherwise will be set to -1
      */
     public void setSize(int size) {
-        this.size = size;
-        this.i = 0;
+        i.reset();
+        this.startTime = System.nanoTime();
+        this.resumed = 0L;
+        this.size = (size < 1) ? -1 : size;
+    }
 
-        if (size < 1) {
-            this.size = -1;
-        }
+    /**
+     * Sets the number of elements to be processed and the number of elements
+     * already processed, to continue a process from a {@link Checkpoint}. The
+     * elapsed time is reset, and the rate only counts the items processed
+     * from now on. It should not be called while other threads are counting
+     * up.
+     *
+     * @param size      size, integer greater than 0, otherwise will be set to
+     *                  -1
+     * @param processed number of items already processed
+     */
+    public void resume(int size, long processed) {
+        setSize(size);
+        i.add(processed);
+        this.resumed = processed;
     }
 
     /**
-     * Counts up the number of processed items.
+     * Counts up the number of processed items. It can be called from several
+     * threads at once.
      *
      * @param items new processed items
      */
     public void add(int items) {
-        i += items;
+        i.add(items);
     }
 
     /**
      * Counts up one processed item.
      */
     public void add() {
-        add(1);
+        i.increment();
+    }
+
+    private static float computeProgress(long processed, int size) {
+        if (size == -1) {
+            return 0;
+        }
+        final float progress = (float) processed / size;
+        return (progress <= 1) ? progress : 1;
     }
 }
@@ -17,4 +17,15 @@ public interface ProgressLoadingView extends LoadingView {
      * @param progress floating number from 0 to 1 to set the view's progress
      */
     void setProgress(float progress);
+
+    /**
+     * Sets the progress to display on the view from a progress snapshot. By
+     * default, it sets the snapshot progress, override it to also display
+     * other values like the rate or the estimated time remaining.
+     *
+     * @param snapshot progress snapshot
+     */
+    default void setProgress(Progress.Snapshot snapshot) {
+        setProgress(snapshot.getProgress());
+    }
 }
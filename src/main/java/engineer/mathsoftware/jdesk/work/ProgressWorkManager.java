@@ -4,36 +4,88 @@
 
 package engineer.mathsoftware.jdesk.work;
 
+import engineer.mathsoftware.jdesk.Window;
+import engineer.mathsoftware.jdesk.ui.dialog.AppDialog;
+
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * It executes a work on background with {@link AppWorker} and updates the
  * {@link ProgressLoadingView} when the update is received.
+ * <p>
+ * Long-running works can be executed as resumable, so they save a {@link
+ * Checkpoint} of their progress and state as they go, and can continue from
+ * it after a crash or the app being closed, instead of starting over.
  *
  * @author Tobias Briones
  */
 public final class ProgressWorkManager<R> {
+    /**
+     * Default minimum time in milliseconds between two saved checkpoints.
+     */
+    public static final long DEFAULT_CHECKPOINT_INTERVAL = 5000L;
     private final AppWorker<R, Progress> work;
     private final Progress progress;
+    private final Object checkpointLock;
+    private volatile CheckpointStore checkpointStore;
+    private long checkpointInterval;
+    private long lastCheckpointTime;
+
     /**
      * Constructor for ProgressWorkManager with the size of the progress to be
-     * used to update the {@link ProgressLoadingView}.
+     * used to update the {@link ProgressLoadingView} and the executor to run
+     * the work on.
      *
      * @param loadingView  loading view
      * @param callback     work callback
      * @param progressSize size of items to be processed
+     * @param executor     executor to run the work on, or {@code null} to use
+     *                     the default one
+     *
+     * @see AppWorker
      */
     public ProgressWorkManager(
         ProgressLoadingView loadingView,
         WorkCallback<R> callback,
-        int progressSize
+        int progressSize,
+        WorkExecutor executor
     ) {
         this.work = new AppWorker<>(
             loadingView,
             callback,
-            new Listener(loadingView)
+            new Listener(loadingView),
+            executor
         );
         this.progress = new Progress(progressSize);
+        this.checkpointLock = new Object();
+        this.checkpointStore = null;
+        this.checkpointInterval = TimeUnit.MILLISECONDS.toNanos(
+            DEFAULT_CHECKPOINT_INTERVAL
+        );
+        this.lastCheckpointTime = 0L;
+
+        work.setUpdateMode(UpdateChannel.Mode.LATEST);
+    }
+
+    /**
+     * Constructor for ProgressWorkManager with the size of the progress to be
+     * used to update the {@link ProgressLoadingView}.
+     *
+     * @param loadingView  loading view
+     * @param callback     work callback
+     * @param progressSize size of items to be processed
+     */
+    public ProgressWorkManager(
+        ProgressLoadingView loadingView,
+        WorkCallback<R> callback,
+        int progressSize
+    ) {
+        this(loadingView, callback, progressSize, null);
     }
 
     /**
@@ -51,7 +103,9 @@ public final class ProgressWorkManager<R> {
     }
 
     /**
-     * Returns the {@link AppWorker} used to perform the background task.
+     * Returns the {@link AppWorker} used to perform the background task. Set
+     * its name and metrics before executing to customize how the work reports
+     * its {@link WorkMetrics}.
      *
      * @return app worker
      */
@@ -68,6 +122,25 @@ public final class ProgressWorkManager<R> {
         return progress;
     }
 
+    /**
+     * Sets the minimum time between two checkpoints saved by {@link
+     * #checkpoint(Supplier)}, so the work can call it as often as it wants
+     * without writing the disk on each call.
+     *
+     * @param checkpointInterval minimum time between two checkpoints in
+     *                           milliseconds, 0 to save every checkpoint
+     */
+    public void setCheckpointInterval(long checkpointInterval) {
+        if (checkpointInterval < 0L) {
+            throw new IllegalArgumentException("Interval must not be negative");
+        }
+        synchronized (checkpointLock) {
+            this.checkpointInterval = TimeUnit.MILLISECONDS.toNanos(
+                checkpointInterval
+            );
+        }
+    }
+
     /**
      * It executes the work.
      *
@@ -77,14 +150,206 @@ public final class ProgressWorkManager<R> {
         work.execute(runnable);
     }
 
+    /**
+     * It executes a work graph. The progress size is set to the number of
+     * nodes of the graph, and it's updated each time a node completes.
+     *
+     * @param graph work graph
+     *
+     * @see WorkGraph
+     */
+    public void execute(WorkGraph<R> graph) {
+        progress.setSize(graph.size());
+        graph.setNodeListener(count -> itemDone());
+        execute((WorkRunnable<R>) graph);
+    }
+
+    /**
+     * It executes a partitioned work that processes the given items in
+     * parallel on the common {@link ForkJoinPool}. The progress size is set to
+     * the number of items, and it's updated after each item is processed.
+     *
+     * @param items      items to process
+     * @param itemWork   work to perform on each item
+     * @param aggregator function to aggregate the item results, in the items
+     *                   order, into the work result
+     * @param <T>        type of the items to process
+     * @param <P>        type of the result of processing one item
+     *
+     * @see #executePartitioned(ForkJoinPool, List, ItemWork, Function)
+     */
+    public <T, P> void executePartitioned(
+        List<T> items,
+        ItemWork<T, P> itemWork,
+        Function<List<P>, R> aggregator
+    ) {
+        executePartitioned(
+            ForkJoinPool.commonPool(),
+            items,
+            itemWork,
+            aggregator
+        );
+    }
+
+    /**
+     * It executes a partitioned work that processes the given items in
+     * parallel on the given {@link ForkJoinPool}. The items are split into
+     * partitions, and the idle threads of the pool steal the pending
+     * partitions. If an item fails the remaining items are skipped, and the
+     * work fails with that exception. The progress size is set to the number
+     * of items, and it's updated after each item is processed.
+     *
+     * @param pool       pool to process the items on
+     * @param items      items to process
+     * @param itemWork   work to perform on each item
+     * @param aggregator function to aggregate the item results, in the items
+     *                   order, into the work result
+     * @param <T>        type of the items to process
+     * @param <P>        type of the result of processing one item
+     */
+    public <T, P> void executePartitioned(
+        ForkJoinPool pool,
+        List<T> items,
+        ItemWork<T, P> itemWork,
+        Function<List<P>, R> aggregator
+    ) {
+        progress.setSize(items.size());
+        execute(new PartitionedWork<>(
+            pool,
+            items,
+            itemWork,
+            aggregator,
+            this::itemDone,
+            work.getCancellationToken()
+        ));
+    }
+
+    /**
+     * It executes a resumable work that saves its checkpoints on the given
+     * store. If it's resumed and there's a saved checkpoint, the progress is
+     * restored from it and the work receives its state, otherwise the saved
+     * checkpoint is discarded and the work starts from the beginning. When
+     * the work is retried, it resumes from its last checkpoint. The
+     * checkpoint is deleted when the work finishes, and kept if it fails or
+     * is cancelled, so it can be resumed later.
+     *
+     * @param store    store to save the checkpoints on
+     * @param runnable resumable work runnable
+     * @param resume   {@code true} to resume from the saved checkpoint if any
+     *
+     * @see #checkpoint(Supplier)
+     */
+    public void executeResumable(
+        CheckpointStore store,
+        ResumableWorkRunnable<R> runnable,
+        boolean resume
+    ) {
+        if (store == null) {
+            throw new NullPointerException("Store must not be null");
+        }
+        checkpointStore = store;
+        execute(() -> {
+            final Checkpoint checkpoint = resume || work.getAttempt() > 1
+                                          ? store.load()
+                                          : null;
+            final R result;
+
+            if (checkpoint != null) {
+                progress.resume(checkpoint.getSize(), checkpoint.getProcessed());
+                update();
+            }
+            else {
+                store.delete();
+            }
+            synchronized (checkpointLock) {
+                lastCheckpointTime = System.nanoTime();
+            }
+            result = runnable.run(checkpoint != null ? checkpoint.state() : null);
+            store.delete();
+            return result;
+        });
+    }
+
+    /**
+     * It executes a resumable work, and if there's a saved checkpoint it asks
+     * the user whether to resume it with a confirm dialog showing the given
+     * message.
+     *
+     * @param window    window to attach the confirm dialog
+     * @param resumeMsg message of the confirm dialog to resume the work
+     * @param store     store to save the checkpoints on
+     * @param runnable  resumable work runnable
+     *
+     * @see #executeResumable(CheckpointStore, ResumableWorkRunnable, boolean)
+     */
+    public void executeResumable(
+        Window window,
+        String resumeMsg,
+        CheckpointStore store,
+        ResumableWorkRunnable<R> runnable
+    ) {
+        final boolean resume = store.exists()
+                               && AppDialog.showConfirm(window, resumeMsg)
+                                  == AppDialog.ConfirmResult.RESULT_OK;
+        executeResumable(store, runnable, resume);
+    }
+
+    /**
+     * It is called from {@link ResumableWorkRunnable#run(byte[])} to save a
+     * checkpoint with the current progress and the given state. The
+     * checkpoint is only saved if the checkpoint interval has passed since
+     * the last one, so the state is only taken when it's going to be saved.
+     * The state must match the current progress, it's the state the work
+     * receives to continue from this progress.
+     *
+     * @param state supplier of the current state of the work
+     *
+     * @return {@code true} if and only if the checkpoint was saved
+     *
+     * @throws IOException      if an I/O error occurs saving the checkpoint,
+     *                          the previous one is kept
+     * @throws RuntimeException if the work is not resumable
+     */
+    public boolean checkpoint(Supplier<byte[]> state) throws IOException {
+        final CheckpointStore store = checkpointStore;
+
+        if (store == null) {
+            throw new RuntimeException("This work is not resumable");
+        }
+        synchronized (checkpointLock) {
+            final long now = System.nanoTime();
+
+            if (now - lastCheckpointTime < checkpointInterval) {
+                return false;
+            }
+            final Progress.Snapshot snapshot = progress.snapshot();
+
+            store.save(new Checkpoint(
+                snapshot.getProcessed(),
+                snapshot.getSize(),
+                state.get(),
+                System.currentTimeMillis()
+            ));
+            lastCheckpointTime = now;
+            return true;
+        }
+    }
+
     /**
      * It is called from {@link WorkRunnable#run()} to update the progress of
-     * the {@link ProgressLoadingView}.
+     * the {@link ProgressLoadingView}. It can be called from several threads
+     * at once, the view receives a {@link Progress.Snapshot} of the latest
+     * progress.
      */
     public void update() {
         work.update(progress);
     }
 
+    private void itemDone() {
+        progress.add();
+        update();
+    }
+
     private static final class Listener implements WorkRunnableListener<Progress> {
         private final ProgressLoadingView progressLoadingView;
 
@@ -96,7 +361,7 @@ public final class ProgressWorkManager<R> {
         public void update(List<Progress> updates) {
             final Progress progress = updates.get(updates.size() - 1);
 
-            progressLoadingView.setProgress(progress.getProgress());
+            progressLoadingView.setProgress(progress.snapshot());
         }
     }
 }
@@ -0,0 +1,33 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+/**
+ * Long-running work that can continue from its last {@link Checkpoint}. The
+ * work calls {@link ProgressWorkManager#checkpoint(java.util.function.Supplier)}
+ * as it goes to save its state, and it receives the state of the last saved
+ * checkpoint when it's resumed.
+ *
+ * @param <R> type of result to return after completing the background task
+ *
+ * @author Tobias Briones
+ * @see ProgressWorkManager#executeResumable(CheckpointStore,
+ * ResumableWorkRunnable, boolean)
+ */
+@FunctionalInterface
+public interface ResumableWorkRunnable<R> {
+    /**
+     * Called when the background task is going to be performed on a new
+     * thread.
+     *
+     * @param state state of the checkpoint to resume from, or {@code null} to
+     *              start from the beginning
+     *
+     * @return the result of the task
+     *
+     * @throws Exception if something wrong happened when performing the task
+     */
+    R run(byte[] state) throws Exception;
+}
@@ -0,0 +1,185 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * Defines how an {@link AppWorker} retries a work that failed, for example
+ * when a file is locked or a local service is busy. A failed attempt is
+ * retried if the policy has attempts left and the exception is accepted by its
+ * retry-on predicate, after an exponential backoff delay with random jitter, so
+ * several works failing at once don't retry at once. The policies are
+ * immutable.
+ *
+ * @author Tobias Briones
+ * @see AppWorker#setRetryPolicy(RetryPolicy)
+ */
+public final class RetryPolicy {
+    /**
+     * Policy that never retries.
+     */
+    public static final RetryPolicy NONE = new RetryPolicy(1, 0L);
+
+    /**
+     * Default ratio by which the delay grows after each attempt.
+     */
+    public static final double DEFAULT_MULTIPLIER = 2.0;
+
+    /**
+     * Default fraction of the delay that is randomized.
+     */
+    public static final double DEFAULT_JITTER = 0.5;
+
+    /**
+     * Default maximum delay between attempts in milliseconds.
+     */
+    public static final long DEFAULT_MAX_DELAY = 30_000L;
+    private final int maxAttempts;
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+    private final double multiplier;
+    private final double jitter;
+    private final Predicate<? super Exception> retryOn;
+
+    /**
+     * Constructor for RetryPolicy.
+     *
+     * @param maxAttempts        maximum number of attempts including the first
+     *                           one, greater than 0
+     * @param initialDelayMillis delay before the first retry in milliseconds
+     * @param maxDelayMillis     maximum delay between attempts in
+     *                           milliseconds
+     * @param multiplier         ratio by which the delay grows after each
+     *                           attempt, at least 1
+     * @param jitter             fraction of the delay that is randomized, from
+     *                           0 to 1, the actual delay is between {@code
+     *                           delay * (1 - jitter)} and the delay
+     * @param retryOn            predicate that accepts the exceptions to retry
+     */
+    public RetryPolicy(
+        int maxAttempts,
+        long initialDelayMillis,
+        long maxDelayMillis,
+        double multiplier,
+        double jitter,
+        Predicate<? super Exception> retryOn
+    ) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be positive");
+        }
+        if (initialDelayMillis < 0L || maxDelayMillis < 0L) {
+            throw new IllegalArgumentException("Delays must not be negative");
+        }
+        if (multiplier < 1.0 || jitter < 0.0 || jitter > 1.0) {
+            final String msg = "Multiplier must be at least 1 and jitter in [0, 1]";
+            throw new IllegalArgumentException(msg);
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialDelayMillis = initialDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+        this.retryOn = retryOn;
+    }
+
+    /**
+     * Constructor for RetryPolicy that retries on any exception with the
+     * default multiplier, jitter and maximum delay.
+     *
+     * @param maxAttempts        maximum number of attempts including the first
+     *                           one, greater than 0
+     * @param initialDelayMillis delay before the first retry in milliseconds
+     */
+    public RetryPolicy(int maxAttempts, long initialDelayMillis) {
+        this(
+            maxAttempts,
+            initialDelayMillis,
+            Math.max(initialDelayMillis, DEFAULT_MAX_DELAY),
+            DEFAULT_MULTIPLIER,
+            DEFAULT_JITTER,
+            exception -> true
+        );
+    }
+
+    /**
+     * Returns a copy of this policy that retries only the exceptions accepted
+     * by the given predicate.
+     *
+     * @param retryOn predicate that accepts the exceptions to retry
+     *
+     * @return a copy of this policy with the given predicate
+     */
+    public RetryPolicy retryOn(Predicate<? super Exception> retryOn) {
+        return new RetryPolicy(
+            maxAttempts,
+            initialDelayMillis,
+            maxDelayMillis,
+            multiplier,
+            jitter,
+            retryOn
+        );
+    }
+
+    /**
+     * Returns a copy of this policy that retries only the exceptions that are
+     * instances of any of the given types.
+     *
+     * @param types types of the exceptions to retry
+     *
+     * @return a copy of this policy that retries the given exception types
+     */
+    @SafeVarargs
+    public final RetryPolicy retryOn(Class<? extends Exception>... types) {
+        return retryOn(exception -> {
+            for (Class<? extends Exception> type : types) {
+                if (type.isInstance(exception)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Returns the maximum number of attempts including the first one.
+     *
+     * @return the maximum number of attempts
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Returns {@code true} if and only if the failed attempt should be
+     * retried.
+     *
+     * @param attempt   number of the failed attempt, starting at 1
+     * @param exception exception the attempt failed with
+     *
+     * @return {@code true} if and only if the work should be retried
+     */
+    public boolean shouldRetry(int attempt, Exception exception) {
+        return attempt < maxAttempts && retryOn.test(exception);
+    }
+
+    /**
+     * Returns the delay before retrying the given failed attempt, including
+     * the random jitter.
+     *
+     * @param attempt number of the failed attempt, starting at 1
+     *
+     * @return the delay before the next attempt in milliseconds
+     */
+    public long getDelay(int attempt) {
+        final double delay = Math.min(
+            initialDelayMillis * Math.pow(multiplier, attempt - 1),
+            maxDelayMillis
+        );
+        final double random = ThreadLocalRandom.current().nextDouble();
+        return (long) (delay * (1.0 - jitter * random));
+    }
+}
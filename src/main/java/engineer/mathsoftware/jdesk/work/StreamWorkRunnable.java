@@ -0,0 +1,30 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import java.util.function.Consumer;
+
+/**
+ * Requested to perform a background task that emits its result incrementally,
+ * item by item, instead of returning it at once.
+ *
+ * @param <T> type of the emitted items
+ *
+ * @author Tobias Briones
+ * @see StreamWorker
+ */
+@FunctionalInterface
+public interface StreamWorkRunnable<T> {
+    /**
+     * Called when the corresponding background task is going to be performed
+     * on a new thread. The emitter waits when the UI falls behind the
+     * emitted items.
+     *
+     * @param emitter emitter of the result items
+     *
+     * @throws Exception if something wrong happened when performing the task
+     */
+    void run(Consumer<T> emitter) throws Exception;
+}
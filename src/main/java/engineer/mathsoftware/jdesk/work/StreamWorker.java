@@ -0,0 +1,116 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Worker that executes a {@link StreamWorkRunnable} on background and delivers
+ * its emitted items in chunks to a {@link WorkRunnableListener} on the EDT, so
+ * the UI shows the first items while the rest are still being produced. The
+ * items are delivered at most once per frame, and the emitter waits when the
+ * pending items reach the worker capacity, so a fast producer does not
+ * materialize the whole result in memory before the UI consumes it.
+ * <p>
+ * The callback is notified with the number of emitted items when the stream
+ * completes.
+ *
+ * @param <T> type of the emitted items
+ *
+ * @author Tobias Briones
+ * @see UpdateChannel.Mode#BATCH
+ */
+public final class StreamWorker<T> {
+    private final AppWorker<Long, T> worker;
+
+    /**
+     * Constructor for StreamWorker.
+     *
+     * @param loadingView loading view
+     * @param l           listener receiving the chunks of items on the EDT
+     * @param callback    callback notified with the number of emitted items,
+     *                    or {@code null}
+     * @param executor    executor to run the work on, or {@code null} to use
+     *                    the default {@link AppWorker} executor
+     */
+    public StreamWorker(
+        LoadingView loadingView,
+        WorkRunnableListener<T> l,
+        WorkCallback<Long> callback,
+        WorkExecutor executor
+    ) {
+        this.worker = new AppWorker<>(loadingView, callback, l, executor);
+
+        worker.setUpdateMode(UpdateChannel.Mode.BATCH);
+    }
+
+    /**
+     * Constructor for StreamWorker with the default executor.
+     *
+     * @param loadingView loading view
+     * @param l           listener receiving the chunks of items on the EDT
+     * @param callback    callback notified with the number of emitted items,
+     *                    or {@code null}
+     */
+    public StreamWorker(
+        LoadingView loadingView,
+        WorkRunnableListener<T> l,
+        WorkCallback<Long> callback
+    ) {
+        this(loadingView, l, callback, null);
+    }
+
+    /**
+     * Returns the {@link AppWorker} used to perform the background task.
+     *
+     * @return app worker
+     */
+    public AppWorker<Long, T> getWork() {
+        return worker;
+    }
+
+    /**
+     * Sets the maximum number of items emitted and not yet delivered to the
+     * UI. When it's reached, the emitter waits.
+     *
+     * @param capacity maximum number of pending items, greater than 0
+     *
+     * @see AppWorker#setUpdateCapacity(int)
+     */
+    public void setCapacity(int capacity) {
+        worker.setUpdateCapacity(capacity);
+    }
+
+    /**
+     * Executes the stream work.
+     *
+     * @param runnable stream work runnable
+     */
+    public void execute(StreamWorkRunnable<T> runnable) {
+        worker.execute(() -> {
+            final AtomicLong count = new AtomicLong(0L);
+
+            runnable.run(item -> {
+                worker.getCancellationToken().throwIfCancelled();
+                worker.update(item);
+                count.incrementAndGet();
+            });
+            return count.get();
+        });
+    }
+
+    /**
+     * Cancels the stream work, the emitted items that were not delivered yet
+     * are discarded.
+     *
+     * @return false if the task could not be cancelled, typically because it
+     * has already completed normally; true otherwise
+     *
+     * @see AppWorker#cancel()
+     */
+    public boolean cancel() {
+        return worker.cancel();
+    }
+}
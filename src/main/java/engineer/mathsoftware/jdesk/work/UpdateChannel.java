@@ -0,0 +1,237 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Channel that delivers the updates posted from background threads to a
+ * {@link WorkRunnableListener} on the EDT. Posting is lock-free, and the
+ * pending updates are drained at most once per frame, so a producer posting on
+ * a tight loop does not flood the EDT.
+ *
+ * @param <U> type of the updates
+ *
+ * @author Tobias Briones
+ * @see AppWorker#update(Object)
+ */
+public final class UpdateChannel<U> {
+    /**
+     * Defines how the pending updates are delivered.
+     */
+    public enum Mode {
+        /**
+         * Only the latest posted update is delivered, the previous pending ones
+         * are overwritten.
+         */
+        LATEST,
+
+        /**
+         * All the posted updates are delivered in order. When the channel is
+         * full the producer waits until the EDT drains it.
+         */
+        BATCH
+    }
+
+    /**
+     * Default maximum number of pending updates for {@link Mode#BATCH}.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * Minimum time between two deliveries.
+     */
+    public static final int FRAME_MILLIS = 16;
+    private static final Object EMPTY = new Object();
+    private static final long BACKPRESSURE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1L);
+    private final WorkRunnableListener<U> l;
+    private final Mode mode;
+    private final int capacity;
+    private final AtomicReference<Object> latest;
+    private final Queue<U> queue;
+    private final AtomicInteger size;
+    private final AtomicBoolean isScheduled;
+    private final Timer timer;
+    private volatile long lastDrainTime;
+    private volatile boolean isClosed;
+
+    /**
+     * Constructor for UpdateChannel.
+     *
+     * @param l        listener to deliver the updates to
+     * @param mode     delivery mode
+     * @param capacity maximum number of pending updates for {@link
+     *                 Mode#BATCH}, greater than 0
+     */
+    public UpdateChannel(WorkRunnableListener<U> l, Mode mode, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.l = l;
+        this.mode = mode;
+        this.capacity = capacity;
+        this.latest = new AtomicReference<>(EMPTY);
+        this.queue = new ConcurrentLinkedQueue<>();
+        this.size = new AtomicInteger(0);
+        this.isScheduled = new AtomicBoolean(false);
+        this.timer = new Timer(FRAME_MILLIS, e -> drain());
+        this.lastDrainTime = 0L;
+        this.isClosed = false;
+
+        timer.setRepeats(false);
+    }
+
+    /**
+     * Constructor for UpdateChannel with the default capacity.
+     *
+     * @param l    listener to deliver the updates to
+     * @param mode delivery mode
+     */
+    public UpdateChannel(WorkRunnableListener<U> l, Mode mode) {
+        this(l, mode, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Returns the delivery mode of this channel.
+     *
+     * @return the delivery mode
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Returns {@code true} if and only if this channel no longer accepts
+     * updates.
+     *
+     * @return {@code true} if and only if this channel is closed
+     */
+    public boolean isClosed() {
+        return isClosed;
+    }
+
+    /**
+     * Posts an update to be delivered on the EDT. It can be called from any
+     * thread. On {@link Mode#BATCH} the caller waits while the channel is full,
+     * unless it's called from the EDT, where the channel is drained right away
+     * instead. If the channel is closed the update is ignored.
+     *
+     * @param update update
+     */
+    public void post(U update) {
+        if (isClosed) {
+            return;
+        }
+        if (mode == Mode.LATEST) {
+            latest.set(update);
+        }
+        else {
+            if (!awaitCapacity()) {
+                return;
+            }
+            queue.offer(update);
+            size.incrementAndGet();
+        }
+        schedule();
+    }
+
+    /**
+     * Delivers the pending updates right away. It must be called from the
+     * EDT.
+     */
+    public void flush() {
+        drain();
+    }
+
+    /**
+     * Closes this channel discarding the pending updates.
+     */
+    public void close() {
+        isClosed = true;
+
+        timer.stop();
+        latest.set(EMPTY);
+        queue.clear();
+        size.set(0);
+    }
+
+    private boolean awaitCapacity() {
+        while (size.get() >= capacity) {
+            if (isClosed) {
+                return false;
+            }
+            if (SwingUtilities.isEventDispatchThread()) {
+                drain();
+            }
+            else {
+                LockSupport.parkNanos(BACKPRESSURE_WAIT_NANOS);
+
+                if (Thread.currentThread().isInterrupted()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void schedule() {
+        if (!isScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        final long elapsed = TimeUnit.NANOSECONDS.toMillis(
+            System.nanoTime() - lastDrainTime
+        );
+        final long delay = FRAME_MILLIS - elapsed;
+
+        if (delay <= 0) {
+            SwingUtilities.invokeLater(this::drain);
+        }
+        else {
+            timer.setInitialDelay((int) delay);
+            timer.restart();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void drain() {
+        isScheduled.set(false);
+        lastDrainTime = System.nanoTime();
+        final List<U> updates;
+
+        if (mode == Mode.LATEST) {
+            final Object update = latest.getAndSet(EMPTY);
+
+            if (update == EMPTY) {
+                return;
+            }
+            updates = Collections.singletonList((U) update);
+        }
+        else {
+            final int n = size.get();
+
+            if (n == 0) {
+                return;
+            }
+            updates = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                updates.add(queue.poll());
+            }
+            size.addAndGet(-n);
+        }
+        if (!isClosed) {
+            l.update(updates);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+/**
+ * Factory of the {@link WorkExecutor} that runs each task on a new virtual
+ * thread. Virtual threads are available on Java 21+, this is the baseline
+ * implementation for older runtimes which does not support them, the Java 21+
+ * implementation is shipped on the multi-release jar.
+ *
+ * @author Tobias Briones
+ * @see WorkExecutors#getVirtual()
+ */
+final class VirtualThreadWorkExecutor {
+    /**
+     * Returns {@code true} if and only if the current runtime supports virtual
+     * threads.
+     *
+     * @return {@code true} if and only if virtual threads are supported
+     */
+    static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * Returns a new executor that runs each task on a new virtual thread.
+     *
+     * @param name executor name, used to name its threads
+     *
+     * @return the new executor
+     *
+     * @throws UnsupportedOperationException if virtual threads are not
+     *                                       supported by the runtime
+     * @see #isSupported()
+     */
+    static WorkExecutor newExecutor(String name) {
+        throw new UnsupportedOperationException(
+            "Virtual threads require Java 21 or later"
+        );
+    }
+
+    private VirtualThreadWorkExecutor() {}
+}
@@ -0,0 +1,323 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keyed cache of background work results. Concurrent requests for the same key
+ * share a single in-flight execution, and the completed results are memoized
+ * until they expire or are evicted by the least recently used policy. The
+ * failed or cancelled works are not memoized.
+ * <p>
+ * The {@link WorkCallback}s are invoked on the EDT as they are by {@link
+ * AppWorker}, including when the result is taken from the cache.
+ *
+ * @param <K> type of the work keys
+ * @param <R> type of the work results
+ *
+ * @author Tobias Briones
+ */
+public final class WorkCache<K, R> {
+    /**
+     * Time to live for results that never expire.
+     */
+    public static final long NO_EXPIRATION = 0L;
+    private final long ttlNanos;
+    private final WorkExecutor executor;
+    private final Map<K, Entry<R>> entries;
+    private final Map<K, Flight> flights;
+    private final Object lock;
+
+    /**
+     * Constructor for WorkCache.
+     *
+     * @param maxSize   maximum number of memoized results, greater than 0
+     * @param ttlMillis time to live of the memoized results in milliseconds,
+     *                  or {@link #NO_EXPIRATION}
+     * @param executor  executor to run the works on, or {@code null} to use
+     *                  the default {@link AppWorker} executor
+     */
+    public WorkCache(int maxSize, long ttlMillis, WorkExecutor executor) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Max size must be positive");
+        }
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.executor = executor;
+        this.entries = new LinkedHashMap<K, Entry<R>>(16, 0.75f, true) {
+            private static final long serialVersionUID = -2338626382440378245L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                Map.Entry<K, WorkCache.Entry<R>> eldest
+            ) {
+                return size() > maxSize;
+            }
+        };
+        this.flights = new HashMap<>();
+        this.lock = new Object();
+    }
+
+    /**
+     * Constructor for WorkCache that runs the works on the default {@link
+     * AppWorker} executor.
+     *
+     * @param maxSize   maximum number of memoized results, greater than 0
+     * @param ttlMillis time to live of the memoized results in milliseconds,
+     *                  or {@link #NO_EXPIRATION}
+     */
+    public WorkCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, null);
+    }
+
+    /**
+     * Returns the number of memoized results, including the expired ones that
+     * have not been removed yet.
+     *
+     * @return the number of memoized results
+     */
+    public int size() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Returns {@code true} if and only if there is a work in-flight for the
+     * given key.
+     *
+     * @param key work key
+     *
+     * @return {@code true} if and only if the work of the key is running
+     */
+    public boolean isRunning(K key) {
+        synchronized (lock) {
+            return flights.containsKey(key);
+        }
+    }
+
+    /**
+     * Executes the work of the given key, unless its result is memoized, or
+     * it's already running, in which case the callback is notified with the
+     * memoized result or when the running work completes respectively. The
+     * loading view runs while this request waits for the result and is not
+     * started if the result is memoized.
+     *
+     * @param key         work key
+     * @param loadingView loading view, or {@code null}
+     * @param callback    callback, or {@code null}
+     * @param runnable    work to run if the result is not available
+     *
+     * @throws RejectedExecutionException if the executor does not accept the
+     *                                    work
+     */
+    public void execute(
+        K key,
+        LoadingView loadingView,
+        WorkCallback<R> callback,
+        WorkRunnable<R> runnable
+    ) {
+        final Waiter<R> waiter = new Waiter<>(loadingView, callback);
+        final Flight flight;
+        final boolean isNewFlight;
+
+        synchronized (lock) {
+            final Entry<R> entry = entries.get(key);
+
+            if (entry != null && !isExpired(entry)) {
+                final R result = entry.result;
+
+                if (callback != null) {
+                    SwingUtilities.invokeLater(() -> callback.workFinished(result));
+                }
+                return;
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+            isNewFlight = !flights.containsKey(key);
+            if (isNewFlight) {
+                flights.put(key, new Flight(key));
+            }
+            flight = flights.get(key);
+            flight.waiters.add(waiter);
+
+            // Started under the lock, so it can't start after the flight ended
+            waiter.start();
+        }
+        if (isNewFlight) {
+            flight.execute(runnable);
+        }
+    }
+
+    /**
+     * Cancels the in-flight work of the given key, if any. All the requests
+     * waiting for it are notified by {@link WorkCallback#workCancelled()}.
+     *
+     * @param key work key
+     */
+    public void cancel(K key) {
+        final Flight flight;
+
+        synchronized (lock) {
+            flight = flights.get(key);
+        }
+        if (flight != null) {
+            flight.worker.cancel();
+        }
+    }
+
+    /**
+     * Removes the memoized result of the given key. If the work is in-flight,
+     * its result is delivered to the waiting requests, but it's not memoized,
+     * and the next request runs the work again.
+     *
+     * @param key work key
+     */
+    public void invalidate(K key) {
+        synchronized (lock) {
+            entries.remove(key);
+            flights.remove(key);
+        }
+    }
+
+    /**
+     * Removes all the memoized results.
+     *
+     * @see #invalidate(Object)
+     */
+    public void invalidateAll() {
+        synchronized (lock) {
+            entries.clear();
+            flights.clear();
+        }
+    }
+
+    private boolean isExpired(Entry<R> entry) {
+        return ttlNanos > 0 && System.nanoTime() - entry.time > ttlNanos;
+    }
+
+    private final class Flight implements WorkCallback<R> {
+        private final K key;
+        private final List<Waiter<R>> waiters;
+        private final AppWorker<R, Void> worker;
+
+        private Flight(K key) {
+            this.key = key;
+            this.waiters = new ArrayList<>(1);
+            this.worker = new AppWorker<>(
+                NoLoadingView.INSTANCE,
+                this,
+                null,
+                executor
+            );
+        }
+
+        private void execute(WorkRunnable<R> runnable) {
+            try {
+                worker.execute(runnable);
+            }
+            catch (RejectedExecutionException e) {
+                for (Waiter<R> waiter : complete(null, false)) {
+                    waiter.end();
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        public void workFinished(R result) {
+            for (Waiter<R> waiter : complete(result, true)) {
+                waiter.end();
+                if (waiter.callback != null) {
+                    waiter.callback.workFinished(result);
+                }
+            }
+        }
+
+        @Override
+        public void workFailed(Exception exception) {
+            for (Waiter<R> waiter : complete(null, false)) {
+                waiter.end();
+                if (waiter.callback != null) {
+                    waiter.callback.workFailed(exception);
+                }
+            }
+        }
+
+        @Override
+        public void workCancelled() {
+            for (Waiter<R> waiter : complete(null, false)) {
+                waiter.end();
+                if (waiter.callback != null) {
+                    waiter.callback.workCancelled();
+                }
+            }
+        }
+
+        @Override
+        public void workTimedOut() {
+            for (Waiter<R> waiter : complete(null, false)) {
+                waiter.end();
+                if (waiter.callback != null) {
+                    waiter.callback.workTimedOut();
+                }
+            }
+        }
+
+        private List<Waiter<R>> complete(R result, boolean isSuccessful) {
+            synchronized (lock) {
+                // It might have been invalidated while running
+                if (flights.get(key) == this) {
+                    flights.remove(key);
+
+                    if (isSuccessful) {
+                        entries.put(key, new Entry<>(result, System.nanoTime()));
+                    }
+                }
+                return new ArrayList<>(waiters);
+            }
+        }
+    }
+
+    private static final class Waiter<R> {
+        private final LoadingView loadingView;
+        private final WorkCallback<R> callback;
+
+        private Waiter(LoadingView loadingView, WorkCallback<R> callback) {
+            this.loadingView = loadingView;
+            this.callback = callback;
+        }
+
+        private void start() {
+            if (loadingView != null) {
+                loadingView.start();
+            }
+        }
+
+        private void end() {
+            if (loadingView != null) {
+                loadingView.end();
+            }
+        }
+    }
+
+    private static final class Entry<R> {
+        private final R result;
+        private final long time;
+
+        private Entry(R result, long time) {
+            this.result = result;
+            this.time = time;
+        }
+    }
+}
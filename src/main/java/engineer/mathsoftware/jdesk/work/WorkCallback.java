@@ -4,6 +4,8 @@
 
 package engineer.mathsoftware.jdesk.work;
 
+import java.util.concurrent.TimeoutException;
+
 /**
  * WorkCallback to notify the work results such as finished, failed or
  * cancelled. The methods of this callback are invoked on the EDT to process the
@@ -34,4 +36,15 @@ public interface WorkCallback<R> {
      * might be cancelled after being completed and will not be notified.
      */
     void workCancelled();
+
+    /**
+     * Called when the work is completed because it didn't finish before its
+     * deadline and was cancelled. By default, it calls {@link
+     * #workFailed(Exception)} with a {@link TimeoutException}.
+     *
+     * @see AppWorker#setTimeout(long)
+     */
+    default void workTimedOut() {
+        workFailed(new TimeoutException("The work timed out"));
+    }
 }
@@ -0,0 +1,31 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Executor that runs the background tasks of {@link AppWorker}. The work
+ * submitted to a work executor is the whole {@link AppWorker} task, so the
+ * results are still delivered on the EDT through the {@link WorkCallback}.
+ *
+ * @author Tobias Briones
+ * @see WorkExecutors
+ * @see PoolWorkExecutor
+ */
+public interface WorkExecutor extends Executor {
+    /**
+     * Returns the name of this executor, it's also used to name its threads.
+     *
+     * @return the name of this executor
+     */
+    String getName();
+
+    /**
+     * Initiates an orderly shutdown in which previously submitted tasks are
+     * executed, but no new tasks will be accepted.
+     */
+    void shutdown();
+}
@@ -0,0 +1,326 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * Holds the app-wide {@link WorkExecutor}s. There are two pools, one sized for
+ * CPU-bound tasks and another one for I/O-bound tasks that spend most of their
+ * time blocked. Both can be replaced at startup to tune the deployment.
+ * <p>
+ * On Java 21+ the I/O executor can run each task on a virtual thread instead,
+ * either by setting it to {@link #getVirtual()} or by starting the app with
+ * the system property {@value #VIRTUAL_THREADS_PROPERTY} set to {@code
+ * true}.
+ * <p>
+ * There's also a small executor for low-priority background tasks, like
+ * indexing or prefetching, that is paused while the app is in low-power mode.
+ * <p>
+ * It also holds the app-wide {@link WorkMetrics} that the works report to,
+ * which discards the events by default, and the default timeout of the
+ * works.
+ *
+ * @author Tobias Briones
+ */
+public final class WorkExecutors {
+    /**
+     * Name of the default CPU executor.
+     */
+    public static final String CPU_EXECUTOR_NAME = "jdesk-cpu";
+
+    /**
+     * Name of the default I/O executor.
+     */
+    public static final String IO_EXECUTOR_NAME = "jdesk-io";
+
+    /**
+     * Name of the default virtual thread executor.
+     */
+    public static final String VIRTUAL_EXECUTOR_NAME = "jdesk-virtual";
+
+    /**
+     * Name of the default background executor.
+     */
+    public static final String BACKGROUND_EXECUTOR_NAME = "jdesk-background";
+
+    /**
+     * System property to make the default I/O executor run each task on a
+     * virtual thread when the runtime supports it.
+     */
+    public static final String VIRTUAL_THREADS_PROPERTY = "jdesk.work.virtualThreads";
+    private static final String SCHEDULER_NAME = "jdesk-scheduler";
+    private static final int IO_THREADS_PER_CORE = 4;
+    private static final Object lock = new Object();
+    private static volatile WorkExecutor cpu = null;
+    private static volatile WorkExecutor io = null;
+    private static volatile WorkExecutor virtual = null;
+    private static volatile WorkExecutor background = null;
+    private static volatile boolean isBackgroundPaused = false;
+    private static volatile WorkMetrics metrics = WorkMetrics.NONE;
+    private static volatile long defaultTimeout = AppWorker.NO_TIMEOUT;
+    private static volatile ScheduledExecutorService scheduler = null;
+
+    /**
+     * Returns the executor for CPU-bound tasks. If it was not set, it's created
+     * with one thread per available processor.
+     *
+     * @return the executor for CPU-bound tasks
+     */
+    public static WorkExecutor getCpu() {
+        if (cpu == null) {
+            synchronized (lock) {
+                if (cpu == null) {
+                    cpu = new PoolWorkExecutor(CPU_EXECUTOR_NAME, cores());
+                }
+            }
+        }
+        return cpu;
+    }
+
+    /**
+     * Returns the executor for I/O-bound tasks. If it was not set, it's created
+     * with several threads per available processor, or it's the {@link
+     * #getVirtual()} executor if the {@value #VIRTUAL_THREADS_PROPERTY} system
+     * property is {@code true}. This is the executor used by default by {@link
+     * AppWorker}.
+     *
+     * @return the executor for I/O-bound tasks
+     */
+    public static WorkExecutor getIo() {
+        if (io == null) {
+            synchronized (lock) {
+                if (io == null) {
+                    io = Boolean.getBoolean(VIRTUAL_THREADS_PROPERTY)
+                         ? getVirtual()
+                         : newIoExecutor();
+                }
+            }
+        }
+        return io;
+    }
+
+    /**
+     * Returns the executor that runs each task on a new virtual thread. If the
+     * runtime does not support virtual threads, it returns a new I/O pool
+     * executor instead, so it can be used on any Java version.
+     *
+     * @return the executor for virtual threads or a pool executor if they are
+     * not supported
+     */
+    public static WorkExecutor getVirtual() {
+        if (virtual == null) {
+            synchronized (lock) {
+                if (virtual == null) {
+                    virtual = VirtualThreadWorkExecutor.isSupported()
+                              ? VirtualThreadWorkExecutor.newExecutor(VIRTUAL_EXECUTOR_NAME)
+                              : newIoExecutor();
+                }
+            }
+        }
+        return virtual;
+    }
+
+    /**
+     * Returns the executor for low-priority background tasks, that can wait
+     * while the app is not in use. If it was not set, it's created with one
+     * thread per two available processors.
+     *
+     * @return the executor for low-priority background tasks
+     *
+     * @see #setBackgroundPaused(boolean)
+     */
+    public static WorkExecutor getBackground() {
+        if (background == null) {
+            synchronized (lock) {
+                if (background == null) {
+                    final PoolWorkExecutor executor = new PoolWorkExecutor(
+                        BACKGROUND_EXECUTOR_NAME,
+                        Math.max(1, cores() / 2)
+                    );
+
+                    executor.setPaused(isBackgroundPaused);
+                    background = executor;
+                }
+            }
+        }
+        return background;
+    }
+
+    /**
+     * Sets the executor for low-priority background tasks. The previous
+     * executor is shut down.
+     *
+     * @param executor new executor for low-priority background tasks
+     */
+    public static void setBackground(WorkExecutor executor) {
+        requireExecutor(executor);
+        synchronized (lock) {
+            if (background != null && background != executor) {
+                background.shutdown();
+            }
+            background = executor;
+
+            if (executor instanceof PoolWorkExecutor) {
+                ((PoolWorkExecutor) executor).setPaused(isBackgroundPaused);
+            }
+        }
+    }
+
+    /**
+     * Returns {@code true} if and only if the background executor is paused.
+     *
+     * @return {@code true} if and only if the background executor is paused
+     */
+    public static boolean isBackgroundPaused() {
+        return isBackgroundPaused;
+    }
+
+    /**
+     * Pauses or resumes the background executor if it's a {@link
+     * PoolWorkExecutor}. While it's paused, its queued tasks wait and its
+     * running tasks continue.
+     *
+     * @param isPaused {@code true} to pause the background executor
+     */
+    public static void setBackgroundPaused(boolean isPaused) {
+        synchronized (lock) {
+            isBackgroundPaused = isPaused;
+
+            if (background instanceof PoolWorkExecutor) {
+                ((PoolWorkExecutor) background).setPaused(isPaused);
+            }
+        }
+    }
+
+    /**
+     * Sets the executor for CPU-bound tasks. The previous executor is shut
+     * down.
+     *
+     * @param executor new executor for CPU-bound tasks
+     */
+    public static void setCpu(WorkExecutor executor) {
+        requireExecutor(executor);
+        synchronized (lock) {
+            if (cpu != null && cpu != executor) {
+                cpu.shutdown();
+            }
+            cpu = executor;
+        }
+    }
+
+    /**
+     * Sets the executor for I/O-bound tasks. The previous executor is shut
+     * down, unless it's the {@link #getVirtual()} executor.
+     *
+     * @param executor new executor for I/O-bound tasks
+     */
+    public static void setIo(WorkExecutor executor) {
+        requireExecutor(executor);
+        synchronized (lock) {
+            if (io != null && io != executor && io != virtual) {
+                io.shutdown();
+            }
+            io = executor;
+        }
+    }
+
+    /**
+     * Returns the app-wide metrics the works report to.
+     *
+     * @return the app-wide work metrics
+     */
+    public static WorkMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the app-wide metrics the works report to, for example a {@link
+     * HistogramWorkMetrics}. Set {@link WorkMetrics#NONE} to disable them.
+     *
+     * @param metrics app-wide work metrics
+     */
+    public static void setMetrics(WorkMetrics metrics) {
+        if (metrics == null) {
+            throw new NullPointerException("The metrics must not be null");
+        }
+        WorkExecutors.metrics = metrics;
+    }
+
+    /**
+     * Returns the default timeout of the works in milliseconds.
+     *
+     * @return the default work timeout
+     *
+     * @see AppWorker#setTimeout(long)
+     */
+    public static long getDefaultTimeout() {
+        return defaultTimeout;
+    }
+
+    /**
+     * Sets the default timeout of the works in milliseconds, or {@link
+     * AppWorker#NO_TIMEOUT}. It applies to the works executed after setting
+     * it, that don't set their own timeout.
+     *
+     * @param timeoutMillis default work timeout
+     *
+     * @see AppWorker#setTimeout(long)
+     */
+    public static void setDefaultTimeout(long timeoutMillis) {
+        if (timeoutMillis < 0L) {
+            throw new IllegalArgumentException("Timeout must not be negative");
+        }
+        defaultTimeout = timeoutMillis;
+    }
+
+    /**
+     * Returns the single daemon thread scheduler that runs the delayed actions
+     * of the works, like their deadlines. The actions must be short and
+     * non-blocking, and they are removed from the queue when cancelled.
+     *
+     * @return the works scheduler
+     */
+    static ScheduledExecutorService getScheduler() {
+        if (scheduler == null) {
+            synchronized (lock) {
+                if (scheduler == null) {
+                    final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(
+                        1,
+                        r -> {
+                            final Thread thread = new Thread(r, SCHEDULER_NAME);
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    );
+
+                    executor.setRemoveOnCancelPolicy(true);
+                    scheduler = executor;
+                }
+            }
+        }
+        return scheduler;
+    }
+
+    private static WorkExecutor newIoExecutor() {
+        return new PoolWorkExecutor(
+            IO_EXECUTOR_NAME,
+            cores() * IO_THREADS_PER_CORE
+        );
+    }
+
+    private static int cores() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    private static void requireExecutor(WorkExecutor executor) {
+        if (executor == null) {
+            throw new NullPointerException("The executor must not be null");
+        }
+    }
+
+    private WorkExecutors() {}
+}
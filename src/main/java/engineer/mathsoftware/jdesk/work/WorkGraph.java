@@ -0,0 +1,424 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Work made of several {@link WorkRunnable} nodes that declare their
+ * dependencies. A node runs as soon as all its dependencies have finished, so
+ * the independent branches run concurrently on the graph {@link WorkExecutor}.
+ * A node reads the results of its dependencies by calling {@link
+ * Node#getResult()} from its own runnable, the results do not go through the
+ * EDT.
+ * <p>
+ * The graph is a {@link WorkRunnable} itself, so it's executed like any other
+ * work, for example by {@link AppWorker}, {@link ProgressWorkManager} or a
+ * {@code TaskDialog}, showing a single {@link LoadingView} for the whole
+ * graph. The graph is acyclic by construction since a node can only depend on
+ * nodes that were already added.
+ *
+ * @param <R> type of the graph result
+ *
+ * @author Tobias Briones
+ */
+public final class WorkGraph<R> implements WorkRunnable<R> {
+    /**
+     * A node of a {@link WorkGraph}.
+     *
+     * @param <T> type of the node result
+     */
+    public static final class Node<T> {
+        private final WorkGraph<?> graph;
+        private final WorkRunnable<T> runnable;
+        private final Node<?>[] dependencies;
+        private final List<Node<?>> dependents;
+        private final Object lock;
+        private final CancellationToken token;
+        // It's only completed by the node, once its runnable has returned
+        private final CompletableFuture<T> future;
+        private Thread thread;
+        private volatile boolean isCancelled;
+
+        private Node(
+            WorkGraph<?> graph,
+            WorkRunnable<T> runnable,
+            Node<?>[] dependencies
+        ) {
+            this.graph = graph;
+            this.runnable = runnable;
+            this.dependencies = dependencies;
+            this.dependents = new ArrayList<>();
+            this.lock = new Object();
+            this.token = new CancellationToken();
+            this.future = new CompletableFuture<>();
+            this.thread = null;
+            this.isCancelled = false;
+        }
+
+        /**
+         * Returns {@code true} if and only if this node has completed, either
+         * normally, by failing or by being cancelled.
+         *
+         * @return {@code true} if and only if this node has completed
+         */
+        public boolean isDone() {
+            return future.isDone();
+        }
+
+        /**
+         * Returns {@code true} if and only if this node or one of its
+         * dependencies was cancelled.
+         *
+         * @return {@code true} if and only if this node was cancelled
+         */
+        public boolean isCancelled() {
+            return isCancelled;
+        }
+
+        /**
+         * Returns the result of this node. It's meant to be called from the
+         * runnable of a dependent node or once the graph has finished.
+         *
+         * @return the result of this node
+         *
+         * @throws IllegalStateException if this node has not finished
+         *                               successfully
+         */
+        public T getResult() {
+            if (!future.isDone() || future.isCompletedExceptionally()) {
+                throw new IllegalStateException("The node has no result");
+            }
+            return future.join();
+        }
+
+        /**
+         * Returns the cancellation token of this node, it's also available
+         * from {@link CancellationToken#current()} on the node runnable.
+         *
+         * @return the cancellation token of this node
+         */
+        public CancellationToken getCancellationToken() {
+            return token;
+        }
+
+        /**
+         * Cancels this node and all the nodes that depend on it, directly or
+         * indirectly. The node token is cancelled, and if the node is running
+         * its thread is interrupted. A running node completes once its
+         * runnable returns, and it completes as cancelled whatever it returns.
+         * The other branches of the graph keep running.
+         */
+        public void cancel() {
+            synchronized (lock) {
+                if (!future.isDone()) {
+                    isCancelled = true;
+
+                    if (thread != null) {
+                        thread.interrupt();
+                    }
+                }
+            }
+            token.cancel();
+            for (Node<?> dependent : dependents) {
+                dependent.cancel();
+            }
+        }
+
+        private void start(WorkExecutor executor) {
+            future.whenComplete((result, e) -> graph.nodeDone(this, e));
+            if (dependencies.length == 0) {
+                submit(executor);
+                return;
+            }
+            final CompletableFuture<?>[] deps = new CompletableFuture<?>[dependencies.length];
+
+            for (int i = 0; i < deps.length; i++) {
+                deps[i] = dependencies[i].future;
+            }
+            CompletableFuture.allOf(deps).whenComplete((v, e) -> {
+                if (e == null) {
+                    submit(executor);
+                    return;
+                }
+                // A dependency failed or was cancelled, so this node never runs
+                synchronized (lock) {
+                    isCancelled = true;
+                }
+                token.cancel();
+                future.completeExceptionally(new CancellationException());
+            });
+        }
+
+        private void submit(WorkExecutor executor) {
+            try {
+                executor.execute(this::runNode);
+            }
+            catch (RejectedExecutionException e) {
+                future.completeExceptionally(e);
+            }
+        }
+
+        private void runNode() {
+            synchronized (lock) {
+                if (isCancelled) {
+                    future.completeExceptionally(new CancellationException());
+                    return;
+                }
+                thread = Thread.currentThread();
+            }
+            final CancellationToken previous = CancellationToken.setCurrent(token);
+            T result = null;
+            Throwable failure = null;
+
+            try {
+                result = runnable.run();
+            }
+            catch (Exception | Error e) {
+                failure = e;
+            }
+            finally {
+                CancellationToken.setCurrent(previous);
+                synchronized (lock) {
+                    thread = null;
+
+                    // Don't leak the cancellation interrupt to the next task
+                    Thread.interrupted();
+                }
+            }
+            if (isCancelled) {
+                future.completeExceptionally(new CancellationException());
+            }
+            else if (failure != null) {
+                future.completeExceptionally(failure);
+            }
+            else {
+                future.complete(result);
+            }
+        }
+    }
+
+    private final WorkExecutor executor;
+    private final List<Node<?>> nodes;
+    private final AtomicInteger completed;
+    private Node<? extends R> resultNode;
+    private IntConsumer nodeListener;
+    private volatile boolean isStarted;
+
+    /**
+     * Constructor for WorkGraph to run its nodes on the given executor.
+     *
+     * @param executor executor to run the nodes on
+     */
+    public WorkGraph(WorkExecutor executor) {
+        this.executor = executor;
+        this.nodes = new ArrayList<>();
+        this.completed = new AtomicInteger(0);
+        this.resultNode = null;
+        this.nodeListener = null;
+        this.isStarted = false;
+    }
+
+    /**
+     * Default constructor for WorkGraph, it runs its nodes on {@link
+     * WorkExecutors#getIo()}.
+     */
+    public WorkGraph() {
+        this(WorkExecutors.getIo());
+    }
+
+    /**
+     * Returns the number of nodes of this graph.
+     *
+     * @return the number of nodes
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Adds a node to this graph that runs after all its dependencies have
+     * finished successfully. If a dependency fails or is cancelled, this node
+     * does not run.
+     *
+     * @param runnable     node work
+     * @param dependencies nodes of this graph that must finish before
+     * @param <T>          type of the node result
+     *
+     * @return the new node
+     *
+     * @throws IllegalArgumentException if a dependency is not a node of this
+     *                                  graph
+     * @throws IllegalStateException    if the graph has already started
+     */
+    public <T> Node<T> add(WorkRunnable<T> runnable, Node<?>... dependencies) {
+        requireNotStarted();
+        for (Node<?> dependency : dependencies) {
+            if (dependency.graph != this) {
+                final String msg = "The dependency is not a node of this graph";
+                throw new IllegalArgumentException(msg);
+            }
+        }
+        final Node<T> node = new Node<>(this, runnable, dependencies.clone());
+
+        for (Node<?> dependency : dependencies) {
+            dependency.dependents.add(node);
+        }
+        nodes.add(node);
+        return node;
+    }
+
+    /**
+     * Sets the node whose result is the result of this graph. If it's not
+     * set, the graph result is {@code null}.
+     *
+     * @param node node of this graph
+     */
+    public void setResultNode(Node<? extends R> node) {
+        requireNotStarted();
+        if (node.graph != this) {
+            throw new IllegalArgumentException("The node is not of this graph");
+        }
+        this.resultNode = node;
+    }
+
+    /**
+     * Sets a listener that is called each time a node completes with the
+     * number of completed nodes, it's called from the background threads.
+     *
+     * @param nodeListener listener of completed nodes
+     */
+    public void setNodeListener(IntConsumer nodeListener) {
+        requireNotStarted();
+        this.nodeListener = nodeListener;
+    }
+
+    /**
+     * Cancels all the nodes of this graph.
+     */
+    public void cancel() {
+        for (Node<?> node : nodes) {
+            node.cancel();
+        }
+    }
+
+    /**
+     * Runs the graph and waits until all its nodes have completed. The nodes
+     * run on the graph executor. If a node fails, the rest of the graph is
+     * cancelled and this work fails with that exception. The cancelled nodes
+     * do not fail the graph. If the calling thread is interrupted, or the
+     * token of the work running the graph is cancelled, the whole graph is
+     * cancelled, and it still waits for the running nodes to return. The
+     * calling thread is blocked while waiting, so if it's a thread of the
+     * graph executor, the executor must have other threads left to run the
+     * nodes.
+     *
+     * @return the result of the result node, or {@code null} if it's not set
+     *
+     * @throws Exception the exception thrown by the first failed node
+     */
+    @Override
+    public R run() throws Exception {
+        if (isStarted) {
+            throw new IllegalStateException("The graph has already started");
+        }
+        isStarted = true;
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[nodes.size()];
+        final CancellationToken parent = CancellationToken.current();
+        final Runnable cancelGraph = this::cancel;
+
+        parent.onCancel(cancelGraph);
+        for (int i = 0; i < futures.length; i++) {
+            nodes.get(i).start(executor);
+            futures[i] = nodes.get(i).future;
+        }
+        try {
+            // Wait for all the nodes whatever their outcome is
+            CompletableFuture.allOf(futures).handle((v, e) -> null).get();
+        }
+        catch (InterruptedException e) {
+            cancel();
+
+            // The nodes are not completed until their runnables return
+            CompletableFuture.allOf(futures).handle((v, ex) -> null).join();
+            throw e;
+        }
+        catch (ExecutionException ignored) {}
+        finally {
+            parent.removeOnCancel(cancelGraph);
+        }
+        for (Node<?> node : nodes) {
+            final Exception failure = getFailure(node.future);
+
+            if (failure != null) {
+                throw failure;
+            }
+        }
+        if (resultNode == null || resultNode.isCancelled()) {
+            return null;
+        }
+        return resultNode.getResult();
+    }
+
+    private void nodeDone(Node<?> node, Throwable e) {
+        if (e != null && !(unwrap(e) instanceof CancellationException)) {
+            cancel();
+        }
+        final int count = completed.incrementAndGet();
+
+        if (nodeListener != null) {
+            nodeListener.accept(count);
+        }
+    }
+
+    private void requireNotStarted() {
+        if (isStarted) {
+            throw new IllegalStateException("The graph has already started");
+        }
+    }
+
+    private static Exception getFailure(CompletableFuture<?> future) {
+        if (!future.isCompletedExceptionally() || future.isCancelled()) {
+            return null;
+        }
+        try {
+            future.join();
+        }
+        catch (CancellationException e) {
+            return null;
+        }
+        catch (CompletionException e) {
+            final Throwable cause = unwrap(e);
+
+            if (cause instanceof CancellationException) {
+                return null;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            return cause instanceof Exception
+                   ? (Exception) cause
+                   : new ExecutionException(cause);
+        }
+        return null;
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        Throwable cause = e;
+
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
@@ -0,0 +1,90 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+/**
+ * Receives the metrics of the background works executed by {@link AppWorker},
+ * and so by {@link ProgressWorkManager} and the task dialogs built on it. All
+ * the times are in nanoseconds. The methods are called from the worker threads
+ * and the EDT, so implementations must be thread-safe and cheap, they run on
+ * the path of every work.
+ * <p>
+ * The app-wide metrics are set with {@link WorkExecutors#setMetrics(WorkMetrics)}.
+ *
+ * @author Tobias Briones
+ * @see HistogramWorkMetrics
+ */
+public interface WorkMetrics {
+    /**
+     * Outcome of a work.
+     */
+    enum Outcome { FINISHED, FAILED, CANCELLED, TIMED_OUT }
+
+    /**
+     * Metrics that discard all the events.
+     */
+    WorkMetrics NONE = new WorkMetrics() {};
+
+    /**
+     * Called when a work is submitted to its executor.
+     *
+     * @param name work name
+     */
+    default void workEnqueued(String name) {}
+
+    /**
+     * Called when a work starts running on a worker thread.
+     *
+     * @param name      work name
+     * @param queueTime time the work waited on the executor queue
+     */
+    default void workStarted(String name, long queueTime) {}
+
+    /**
+     * Called when a work completes. If the work was cancelled before starting,
+     * the run time is 0.
+     *
+     * @param name    work name
+     * @param outcome work outcome
+     * @param runTime time the work ran on the worker thread
+     */
+    default void workCompleted(String name, Outcome outcome, long runTime) {}
+
+    /**
+     * Called when a failed attempt of a work is going to be retried.
+     *
+     * @param name      work name
+     * @param attempt   number of the failed attempt, starting at 1
+     * @param exception exception the attempt failed with
+     *
+     * @see RetryPolicy
+     */
+    default void workRetried(String name, int attempt, Exception exception) {}
+
+    /**
+     * Called when the work callback is about to be invoked on the EDT.
+     *
+     * @param name         work name
+     * @param callbackLag time from the work completion until the EDT invoked
+     *                     the callback
+     */
+    default void callbackInvoked(String name, long callbackLag) {}
+
+    /**
+     * Called once the work completes with the number of updates posted by
+     * the work and the number of updates delivered to the UI after coalescing.
+     *
+     * @param name      work name
+     * @param posted    number of updates posted by the work
+     * @param delivered number of updates delivered to the UI
+     * @param runTime   time the work ran on the worker thread
+     */
+    default void updatesReported(
+        String name,
+        long posted,
+        long delivered,
+        long runTime
+    ) {}
+}
@@ -0,0 +1,148 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scope that tracks the works started by an owner, like a window, so they
+ * don't outlive it. When the scope is closed, the cancellation token of each
+ * running work is cancelled to stop it cooperatively, and the works that are
+ * still running after the grace period are cancelled as by {@link
+ * AppWorker#cancel()}. A work tracked after the scope is closed is cancelled
+ * right away.
+ * <p>
+ * Each {@link engineer.mathsoftware.jdesk.Window} has a scope that is closed
+ * when the window is detached.
+ *
+ * @author Tobias Briones
+ */
+public final class WorkScope {
+    /**
+     * Default grace period in milliseconds for the works to stop cooperatively
+     * after the scope is closed.
+     */
+    public static final long DEFAULT_GRACE_PERIOD = 1000L;
+    private final CancellationToken token;
+    private final Set<AppWorker<?, ?>> works;
+
+    /**
+     * Default constructor for WorkScope.
+     */
+    public WorkScope() {
+        this.token = new CancellationToken();
+        this.works = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Returns the token of this scope, it's cancelled when the scope is
+     * closed. Other kinds of work, like a {@link BatchWorker}, can be bound
+     * to the scope by registering a callback on this token.
+     *
+     * @return the cancellation token of this scope
+     */
+    public CancellationToken getCancellationToken() {
+        return token;
+    }
+
+    /**
+     * Returns {@code true} if and only if this scope has been closed.
+     *
+     * @return {@code true} if and only if this scope has been closed
+     */
+    public boolean isClosed() {
+        return token.isCancelled();
+    }
+
+    /**
+     * Returns the number of tracked works that have not completed yet.
+     *
+     * @return the number of works in-flight
+     */
+    public int getInFlightCount() {
+        return works.size();
+    }
+
+    /**
+     * Tracks the given work until it completes, it must be called once the
+     * work is executed. A work can be tracked by more than one scope. If this
+     * scope is closed, the work is cancelled. The works with an {@link
+     * AppWorkCallback} are tracked by the scope of the callback window when
+     * they are executed.
+     *
+     * @param work work to track
+     * @param <W>  type of the work
+     *
+     * @return the given work
+     */
+    public <W extends AppWorker<?, ?>> W track(W work) {
+        // A work is tracked once even if it's tracked again by this scope
+        if (work.isCompleted() || !works.add(work)) {
+            return work;
+        }
+        work.addCompletionListener(() -> works.remove(work));
+
+        // It could've completed, or this scope closed, before it was added
+        if (work.isCompleted()) {
+            works.remove(work);
+        }
+        else if (token.isCancelled()) {
+            works.remove(work);
+            work.cancel();
+        }
+        return work;
+    }
+
+    /**
+     * Closes this scope with the {@link #DEFAULT_GRACE_PERIOD}.
+     *
+     * @see #close(long)
+     */
+    public void close() {
+        close(DEFAULT_GRACE_PERIOD);
+    }
+
+    /**
+     * Closes this scope. The tokens of the tracked works are cancelled, and
+     * the works that don't stop within the grace period are cancelled as by
+     * {@link AppWorker#cancel()}, interrupting their threads. Closing a scope
+     * more than once has no effect.
+     *
+     * @param graceMillis grace period in milliseconds for the works to stop
+     *                    cooperatively
+     */
+    public void close(long graceMillis) {
+        if (token.isCancelled()) {
+            return;
+        }
+        token.cancel();
+
+        for (AppWorker<?, ?> work : works) {
+            work.getCancellationToken().cancel();
+        }
+        if (works.isEmpty()) {
+            return;
+        }
+        if (graceMillis <= 0L) {
+            cancelRemaining();
+        }
+        else {
+            WorkExecutors.getScheduler().schedule(
+                this::cancelRemaining,
+                graceMillis,
+                TimeUnit.MILLISECONDS
+            );
+        }
+    }
+
+    private void cancelRemaining() {
+        for (AppWorker<?, ?> work : works) {
+            works.remove(work);
+            work.cancel();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * {@link WorkExecutor} that runs each task on a new virtual thread. Tasks
+ * blocking on I/O do not pin a platform thread, so the concurrency is not
+ * capped by a pool size.
+ *
+ * @author Tobias Briones
+ * @see WorkExecutors#getVirtual()
+ */
+final class VirtualThreadWorkExecutor implements WorkExecutor {
+    /**
+     * Returns {@code true} if and only if the current runtime supports virtual
+     * threads.
+     *
+     * @return {@code true} if and only if virtual threads are supported
+     */
+    static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * Returns a new executor that runs each task on a new virtual thread.
+     *
+     * @param name executor name, used to name its threads
+     *
+     * @return the new executor
+     *
+     * @see #isSupported()
+     */
+    static WorkExecutor newExecutor(String name) {
+        return new VirtualThreadWorkExecutor(name);
+    }
+
+    private final String name;
+    private final ExecutorService executor;
+
+    private VirtualThreadWorkExecutor(String name) {
+        this.name = name;
+        this.executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name(name + "-", 1).factory()
+        );
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(command);
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
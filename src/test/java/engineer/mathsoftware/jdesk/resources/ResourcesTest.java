@@ -0,0 +1,45 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.resources;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResourcesTest {
+    ResourcesTest() {}
+
+    @Test
+    void testFontsAreShared() {
+        final Font font = Resources.loadFont("Roboto-Light", 16, Font.BOLD);
+
+        assertEquals(16, font.getSize());
+        assertEquals(Font.BOLD, font.getStyle());
+        assertSame(font, Resources.loadFont("Roboto-Light", 16, Font.BOLD));
+        assertSame(font, Resources.deriveFont(
+            Resources.loadFont("Roboto-Light"),
+            Font.BOLD,
+            16.0f
+        ));
+        assertNull(Resources.loadFont("Missing-Font"));
+    }
+
+    @Test
+    void testPreloadFontsInBackground() {
+        final CompletableFuture<Boolean> preload = CompletableFuture.supplyAsync(
+            () -> Resources.preloadFonts("Roboto-Light", "Roboto-Bold")
+        );
+
+        assertTrue(preload.join());
+        assertFalse(Resources.preloadFonts("Missing-Font"));
+    }
+}
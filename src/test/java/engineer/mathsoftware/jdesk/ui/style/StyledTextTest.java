@@ -0,0 +1,85 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.ui.style;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import javax.swing.plaf.basic.BasicHTML;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.View;
+import java.awt.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StyledTextTest {
+    StyledTextTest() {}
+
+    @Test
+    void testIsPlain() {
+        assertTrue(StyledText.isPlain("Plain text & more"));
+        assertTrue(StyledText.isPlain("Value must be < 10"));
+        assertTrue(StyledText.isPlain(null));
+        assertFalse(StyledText.isPlain("<html>Some <b>bold</b> text"));
+        assertFalse(StyledText.isPlain("Two\nlines"));
+    }
+
+    @Test
+    void testLiteralTextWithLineBreaks() throws BadLocationException {
+        final JLabel label = newLabel();
+        final View view = StyledText.createView(
+            label,
+            "List<String> expected\nValue must be < 10"
+        );
+        final Document doc = view.getDocument();
+        final String text = doc.getText(0, doc.getLength());
+
+        assertTrue(text.contains("List<String> expected"), text);
+        assertTrue(text.contains("Value must be < 10"), text);
+    }
+
+    @Test
+    void testLabelsWithTheSameText() {
+        final String text = "<html>Some <b>bold</b> text";
+        final JLabel first = newLabel();
+        final JLabel second = newLabel();
+        final View firstView = StyledText.createView(first, text);
+        final View secondView = StyledText.createView(second, text);
+
+        first.putClientProperty(BasicHTML.propertyKey, firstView);
+        second.putClientProperty(BasicHTML.propertyKey, secondView);
+        assertNotSame(firstView, secondView);
+        assertSame(firstView.getDocument(), secondView.getDocument());
+        assertSame(second, secondView.getContainer());
+
+        // Replacing the view of a label detaches its children
+        BasicHTML.updateRenderer(first, "Other text");
+        assertSame(secondView, secondView.getView(0).getParent());
+        assertSame(second, secondView.getView(0).getContainer());
+    }
+
+    @Test
+    void testToHtml() {
+        final Font font = new Font(Font.DIALOG, Font.PLAIN, 12);
+        final String expected = "<html><body style='font-family:Dialog;" +
+                                "font-size:12;color:rgb(255,0,0);'>" +
+                                "<b>text</b></body></html>";
+
+        assertEquals(expected, StyledText.toHtml(font, Color.RED, "<b>text</b>"));
+    }
+
+    private static JLabel newLabel() {
+        final JLabel label = new JLabel();
+
+        label.setFont(new Font(Font.DIALOG, Font.PLAIN, 12));
+        label.setForeground(Color.RED);
+        return label;
+    }
+}
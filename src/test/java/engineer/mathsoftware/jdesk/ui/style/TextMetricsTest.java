@@ -0,0 +1,59 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.ui.style;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextMetricsTest {
+    private static final String TEXT = "The quick brown fox jumps over the lazy dog";
+    private final Font font = new Font(Font.DIALOG, Font.PLAIN, 13);
+
+    TextMetricsTest() {}
+
+    @Test
+    void testWidthMatchesFontMetrics() {
+        final TextMetrics metrics = TextMetrics.of(font);
+        final FontMetrics fm = metrics.getFontMetrics();
+
+        assertSame(metrics, TextMetrics.of(font));
+        assertEquals(fm.stringWidth(TEXT), metrics.getWidth(TEXT));
+        assertEquals(fm.stringWidth("Añejo, déjà vu"), metrics.getWidth("Añejo, déjà vu"));
+    }
+
+    @Test
+    void testEllipsisText() {
+        final TextMetrics metrics = TextMetrics.of(font);
+        final int width = metrics.getWidth(TEXT);
+        final String ellipsisText = metrics.getEllipsisText(TEXT, width / 2);
+
+        assertSame(TEXT, metrics.getEllipsisText(TEXT, width));
+        assertTrue(ellipsisText.endsWith(TextMetrics.ELLIPSIS));
+        assertTrue(metrics.getWidth(ellipsisText) <= width / 2);
+        assertEquals("", metrics.getEllipsisText(TEXT, 1));
+    }
+
+    @Test
+    void testWrap() {
+        final TextMetrics metrics = TextMetrics.of(font);
+        final int width = metrics.getWidth("The quick brown");
+
+        assertEquals(
+            Arrays.asList("The quick brown", "fox jumps over", "the lazy dog"),
+            metrics.wrap(TEXT, width)
+        );
+        assertEquals(Arrays.asList("a", "", "b"), metrics.wrap("a\n\r\nb", 0));
+        assertEquals(
+            new Dimension(width, 3 * metrics.getLineHeight()),
+            metrics.getPreferredSize(TEXT, width)
+        );
+    }
+}
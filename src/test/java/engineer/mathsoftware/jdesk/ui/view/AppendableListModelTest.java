@@ -0,0 +1,85 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.ui.view;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AppendableListModelTest {
+    AppendableListModelTest() {}
+
+    @Test
+    void testBatchFiresOneEvent() {
+        final AppendableListModel<String> model = new AppendableListModel<>();
+        final List<ListDataEvent> events = listen(model);
+
+        model.add("a");
+        model.update(Arrays.asList("b", "c", "d"));
+        model.addAll(Collections.emptyList());
+
+        assertEquals(4, model.getSize());
+        assertEquals("d", model.getElementAt(3));
+        assertEquals(2, events.size());
+        assertInterval(events.get(0), ListDataEvent.INTERVAL_ADDED, 0, 0);
+        assertInterval(events.get(1), ListDataEvent.INTERVAL_ADDED, 1, 3);
+    }
+
+    @Test
+    void testClear() {
+        final AppendableListModel<String> model = new AppendableListModel<>();
+
+        model.addAll(Arrays.asList("a", "b"));
+        final List<ListDataEvent> events = listen(model);
+
+        model.clear();
+        model.clear();
+        assertEquals(0, model.getSize());
+        assertEquals(1, events.size());
+        assertInterval(events.get(0), ListDataEvent.INTERVAL_REMOVED, 0, 1);
+    }
+
+    private static List<ListDataEvent> listen(AppendableListModel<?> model) {
+        final List<ListDataEvent> events = new ArrayList<>();
+
+        model.addListDataListener(new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) {
+                events.add(e);
+            }
+
+            @Override
+            public void intervalRemoved(ListDataEvent e) {
+                events.add(e);
+            }
+
+            @Override
+            public void contentsChanged(ListDataEvent e) {
+                events.add(e);
+            }
+        });
+        return events;
+    }
+
+    private static void assertInterval(
+        ListDataEvent event,
+        int type,
+        int first,
+        int last
+    ) {
+        assertEquals(type, event.getType());
+        assertEquals(first, event.getIndex0());
+        assertEquals(last, event.getIndex1());
+        assertTrue(event.getSource() instanceof AppendableListModel);
+    }
+}
@@ -0,0 +1,88 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.ui.view;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.event.TableModelEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AppendableTableModelTest {
+    AppendableTableModelTest() {}
+
+    @Test
+    void testBatchFiresOneEvent() {
+        final AppendableTableModel<int[]> model = newModel();
+        final List<TableModelEvent> events = listen(model);
+
+        model.update(Arrays.asList(new int[] { 1, 2 }, new int[] { 3, 4 }));
+        model.addAll(Collections.singletonList(new int[] { 5, 6 }));
+        model.addAll(Collections.emptyList());
+
+        assertEquals(3, model.getRowCount());
+        assertEquals(2, events.size());
+        assertRows(events.get(0), TableModelEvent.INSERT, 0, 1);
+        assertRows(events.get(1), TableModelEvent.INSERT, 2, 2);
+    }
+
+    @Test
+    void testCellsAreReadFromTheRows() {
+        final AppendableTableModel<int[]> model = newModel();
+        final int[] row = { 1, 2 };
+
+        model.addAll(Collections.singletonList(row));
+        assertEquals(2, model.getColumnCount());
+        assertEquals("Second", model.getColumnName(1));
+        assertEquals(2, model.getValueAt(0, 1));
+
+        // The row is not copied, so the cell reads its current value
+        row[1] = 20;
+        assertEquals(20, model.getValueAt(0, 1));
+    }
+
+    @Test
+    void testClear() {
+        final AppendableTableModel<int[]> model = newModel();
+
+        model.addAll(Arrays.asList(new int[] { 1, 2 }, new int[] { 3, 4 }));
+        final List<TableModelEvent> events = listen(model);
+
+        model.clear();
+        model.clear();
+        assertEquals(0, model.getRowCount());
+        assertEquals(1, events.size());
+        assertRows(events.get(0), TableModelEvent.DELETE, 0, 1);
+    }
+
+    private static AppendableTableModel<int[]> newModel() {
+        return new AppendableTableModel<>(
+            new String[] { "First", "Second" },
+            (row, column) -> row[column]
+        );
+    }
+
+    private static List<TableModelEvent> listen(AppendableTableModel<?> model) {
+        final List<TableModelEvent> events = new ArrayList<>();
+
+        model.addTableModelListener(events::add);
+        return events;
+    }
+
+    private static void assertRows(
+        TableModelEvent event,
+        int type,
+        int first,
+        int last
+    ) {
+        assertEquals(type, event.getType());
+        assertEquals(first, event.getFirstRow());
+        assertEquals(last, event.getLastRow());
+    }
+}
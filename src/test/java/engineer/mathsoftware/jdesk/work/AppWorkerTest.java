@@ -0,0 +1,65 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AppWorkerTest {
+    private static final long TIMEOUT = 100L;
+
+    AppWorkerTest() {}
+
+    @Test
+    void testWorkTimesOut() throws InterruptedException {
+        final RecordingLoadingView loadingView = new RecordingLoadingView();
+        final RecordingCallback<Void> callback = new RecordingCallback<>();
+        final AppWorker<Void, Void> work = new AppWorker<>(
+            loadingView,
+            callback
+        );
+
+        work.setTimeout(TIMEOUT);
+        work.execute(() -> {
+            final CancellationToken token = CancellationToken.current();
+
+            while (!token.isCancelled()) {
+                Thread.yield();
+            }
+            return null;
+        });
+        assertTrue(callback.await());
+        assertEquals(WorkMetrics.Outcome.TIMED_OUT, callback.getOutcome());
+        assertTrue(work.isTimedOut());
+        assertEquals(1, loadingView.getEnds());
+    }
+
+    @Test
+    void testWorkFinishedBeforeDeadline() throws InterruptedException {
+        final RecordingCallback<String> callback = new RecordingCallback<>();
+        final AppWorker<String, Void> work = new AppWorker<>(
+            NoLoadingView.INSTANCE,
+            callback
+        );
+
+        work.setTimeout(TIMEOUT);
+        work.execute(() -> "result");
+        assertTrue(callback.await());
+
+        // The deadline passes after the work completed
+        Thread.sleep(TIMEOUT * 2L);
+        assertEquals(
+            Collections.singletonList(WorkMetrics.Outcome.FINISHED),
+            callback.getOutcomes()
+        );
+        assertEquals(Collections.singletonList("result"), callback.getResults());
+        assertFalse(work.isTimedOut());
+    }
+}
@@ -0,0 +1,156 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchWorkerTest {
+    private PoolWorkExecutor executor;
+
+    BatchWorkerTest() {}
+
+    @BeforeEach
+    void setUp() {
+        executor = new PoolWorkExecutor("batch", 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void testResultsWithinMaxConcurrency() throws Exception {
+        final RecordingLoadingView loadingView = new RecordingLoadingView();
+        final RecordingCallback<BatchResult<Integer>> callback =
+            new RecordingCallback<>();
+        final BatchWorker<Integer> worker = new BatchWorker<>(
+            loadingView,
+            callback,
+            2,
+            executor
+        );
+        final AtomicInteger running = new AtomicInteger(0);
+        final AtomicInteger maxRunning = new AtomicInteger(0);
+        final List<WorkRunnable<Integer>> works = new ArrayList<>();
+
+        for (int i = 0; i < 6; i++) {
+            final int value = i;
+
+            works.add(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(20L);
+                running.decrementAndGet();
+                return value * value;
+            });
+        }
+        executeAll(worker, works);
+        assertTrue(callback.await());
+        assertEquals(WorkMetrics.Outcome.FINISHED, callback.getOutcome());
+        assertEquals(
+            Arrays.asList(0, 1, 4, 9, 16, 25),
+            callback.getResults().get(0).getResults()
+        );
+        assertTrue(maxRunning.get() <= 2, "Max concurrency exceeded");
+        assertEquals(1, loadingView.getStarts());
+        assertEquals(1, loadingView.getEnds());
+    }
+
+    @Test
+    void testCancelWaitsForRunningWorks() throws Exception {
+        final RecordingCallback<BatchResult<Void>> callback =
+            new RecordingCallback<>();
+        final BatchWorker<Void> worker = new BatchWorker<>(
+            NoLoadingView.INSTANCE,
+            callback,
+            2,
+            executor
+        );
+        final CountDownLatch started = new CountDownLatch(2);
+        final AtomicBoolean release = new AtomicBoolean(false);
+        final AtomicInteger ran = new AtomicInteger(0);
+        final List<WorkRunnable<Void>> works = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            works.add(() -> {
+                ran.incrementAndGet();
+                started.countDown();
+
+                // It ignores the cancellation until it's released
+                while (!release.get()) {
+                    Thread.yield();
+                }
+                return null;
+            });
+        }
+        executeAll(worker, works);
+        assertTrue(started.await(5L, TimeUnit.SECONDS));
+
+        SwingUtilities.invokeAndWait(worker::cancel);
+        Thread.sleep(200L);
+        assertNull(callback.getOutcome(), "The batch completed while running");
+
+        release.set(true);
+        assertTrue(callback.await());
+        assertEquals(WorkMetrics.Outcome.CANCELLED, callback.getOutcome());
+        assertEquals(2, ran.get(), "No work should start after cancelling");
+    }
+
+    @Test
+    void testFailFast() throws Exception {
+        final RecordingCallback<BatchResult<Void>> callback =
+            new RecordingCallback<>();
+        final BatchWorker<Void> worker = new BatchWorker<>(
+            NoLoadingView.INSTANCE,
+            callback,
+            1,
+            executor
+        );
+        final AtomicInteger ran = new AtomicInteger(0);
+        final List<WorkRunnable<Void>> works = new ArrayList<>();
+
+        works.add(() -> {
+            ran.incrementAndGet();
+            throw new IOException("Failed work");
+        });
+        for (int i = 0; i < 5; i++) {
+            works.add(() -> {
+                ran.incrementAndGet();
+                return null;
+            });
+        }
+        worker.setFailFast(true);
+        executeAll(worker, works);
+        assertTrue(callback.await());
+        assertEquals(WorkMetrics.Outcome.FAILED, callback.getOutcome());
+        assertEquals("Failed work", callback.getException().getMessage());
+        assertEquals(1, ran.get(), "No work should run after the failure");
+        assertTrue(worker.isCancelled());
+    }
+
+    private static <R> void executeAll(
+        BatchWorker<R> worker,
+        List<WorkRunnable<R>> works
+    ) throws InterruptedException, InvocationTargetException {
+        SwingUtilities.invokeAndWait(() -> worker.executeAll(works));
+    }
+}
@@ -0,0 +1,74 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CancellationTokenTest {
+    CancellationTokenTest() {}
+
+    @Test
+    void testChildToken() {
+        final CancellationToken parent = new CancellationToken();
+        final CancellationToken child = new CancellationToken(parent);
+        final CancellationToken unlinked = new CancellationToken(parent);
+
+        unlinked.unlink();
+        parent.cancel();
+        assertTrue(child.isCancelled());
+        assertFalse(unlinked.isCancelled());
+    }
+
+    @Test
+    void testWorkLinkedToCancelledParentNeverRuns()
+        throws InterruptedException {
+        final CancellationToken parent = new CancellationToken();
+        final AtomicBoolean ran = new AtomicBoolean(false);
+        final RecordingLoadingView loadingView = new RecordingLoadingView();
+        final RecordingCallback<Void> callback = new RecordingCallback<>();
+        final AppWorker<Void, Void> work = new AppWorker<>(
+            loadingView,
+            callback
+        );
+
+        work.linkTo(parent);
+        parent.cancel();
+        work.execute(() -> {
+            ran.set(true);
+            return null;
+        });
+        assertTrue(callback.await());
+        assertEquals(WorkMetrics.Outcome.CANCELLED, callback.getOutcome());
+        assertFalse(ran.get(), "The work should not run");
+        assertEquals(0, loadingView.getStarts());
+        assertEquals(0, loadingView.getEnds());
+    }
+
+    @Test
+    void testWorkCancelledBeforeExecuteNeverRuns()
+        throws InterruptedException {
+        final AtomicBoolean ran = new AtomicBoolean(false);
+        final RecordingCallback<Void> callback = new RecordingCallback<>();
+        final AppWorker<Void, Void> work = new AppWorker<>(
+            NoLoadingView.INSTANCE,
+            callback
+        );
+
+        assertTrue(work.cancel());
+        work.execute(() -> {
+            ran.set(true);
+            return null;
+        });
+        assertTrue(callback.await());
+        assertEquals(WorkMetrics.Outcome.CANCELLED, callback.getOutcome());
+        assertFalse(ran.get(), "The work should not run");
+    }
+}
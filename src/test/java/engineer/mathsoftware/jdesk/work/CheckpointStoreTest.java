@@ -0,0 +1,57 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CheckpointStoreTest {
+    CheckpointStoreTest() {}
+
+    @Test
+    void testSaveAndLoad(@TempDir Path dir) throws IOException {
+        final CheckpointStore store = new CheckpointStore(dir.resolve("task.ckpt"));
+        final byte[] state = "next=42".getBytes(StandardCharsets.UTF_8);
+
+        assertNull(store.load());
+        store.save(new Checkpoint(10L, 100, new byte[0], 1L));
+        store.save(new Checkpoint(42L, 100, state, 2L));
+
+        final Checkpoint checkpoint = store.load();
+        assertEquals(42L, checkpoint.getProcessed());
+        assertEquals(100, checkpoint.getSize());
+        assertEquals(2L, checkpoint.getSavedTime());
+        assertArrayEquals(state, checkpoint.getState());
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(1L, files.count(), "No temporary files are left");
+        }
+        store.delete();
+        assertFalse(store.exists());
+    }
+
+    @Test
+    void testCorruptedCheckpointIsIgnored(@TempDir Path dir) throws IOException {
+        final CheckpointStore store = new CheckpointStore(dir.resolve("task.ckpt"));
+
+        store.save(new Checkpoint(42L, 100, new byte[] { 1, 2, 3 }, 1L));
+        final byte[] bytes = Files.readAllBytes(store.getFile());
+
+        bytes[12] ^= 1;
+        Files.write(store.getFile(), bytes);
+        assertNull(store.load());
+    }
+}
@@ -0,0 +1,65 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DebouncedWorkerTest {
+    DebouncedWorkerTest() {}
+
+    @Test
+    void testOnlyLatestResultIsDelivered()
+        throws InterruptedException, InvocationTargetException {
+        final RecordingCallback<String> callback = new RecordingCallback<>();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch firstDone = new CountDownLatch(1);
+        final DebouncedWorker<String> worker = new DebouncedWorker<>(
+            NoLoadingView.INSTANCE,
+            callback,
+            0,
+            null
+        );
+
+        // A slow search that doesn't stop when it's cancelled
+        SwingUtilities.invokeAndWait(() -> worker.request(() -> {
+            started.countDown();
+            try {
+                release.await();
+            }
+            catch (InterruptedException ignored) {}
+            finally {
+                firstDone.countDown();
+            }
+            return "first";
+        }));
+        assertTrue(started.await(5L, TimeUnit.SECONDS));
+
+        // The first search finishes while the second one is debounced
+        SwingUtilities.invokeAndWait(() -> {
+            worker.setDelay(300);
+            worker.request(() -> "second");
+        });
+        release.countDown();
+        assertTrue(firstDone.await(5L, TimeUnit.SECONDS));
+
+        assertTrue(callback.await());
+        SwingUtilities.invokeAndWait(() -> {});
+        assertEquals(Collections.singletonList("second"), callback.getResults());
+        assertEquals(
+            Collections.singletonList(WorkMetrics.Outcome.FINISHED),
+            callback.getOutcomes()
+        );
+    }
+}
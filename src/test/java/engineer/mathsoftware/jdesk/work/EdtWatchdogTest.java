@@ -0,0 +1,99 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EdtWatchdogTest {
+    private static final long THRESHOLD = 200L;
+    private final AtomicReference<EdtWatchdog.Stall> stall;
+    private final CountDownLatch reported;
+    private EdtWatchdog watchdog;
+
+    EdtWatchdogTest() {
+        this.stall = new AtomicReference<>();
+        this.reported = new CountDownLatch(1);
+    }
+
+    @BeforeEach
+    void setUp() {
+        watchdog = new EdtWatchdog(THRESHOLD, stall -> {
+            this.stall.compareAndSet(null, stall);
+            reported.countDown();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        watchdog.stop();
+    }
+
+    @Test
+    void testStallLongerThanThreshold() throws Exception {
+        watchdog.start();
+
+        // Lets the EDT answer some pings first
+        Thread.sleep(THRESHOLD);
+        SwingUtilities.invokeAndWait(() -> block(THRESHOLD * 3L / 2L));
+        assertStallReported();
+    }
+
+    @Test
+    void testStallBeforeFirstPing() throws Exception {
+        final CountDownLatch blocked = new CountDownLatch(1);
+
+        SwingUtilities.invokeLater(() -> {
+            blocked.countDown();
+            block(THRESHOLD * 3L / 2L);
+        });
+        assertTrue(blocked.await(5L, TimeUnit.SECONDS));
+        watchdog.start();
+        assertStallReported();
+    }
+
+    private void assertStallReported() throws InterruptedException {
+        assertTrue(reported.await(5L, TimeUnit.SECONDS), "No stall reported");
+        final EdtWatchdog.Stall stall = this.stall.get();
+
+        assertNotNull(stall);
+        assertFalse(stall.isOngoing());
+        assertTrue(
+            stall.getDuration() >= TimeUnit.MILLISECONDS.toNanos(THRESHOLD),
+            "Stall shorter than the threshold"
+        );
+        assertFalse(stall.getSamples().isEmpty(), "The EDT stack should be sampled");
+        assertTrue(
+            stall.getHotStacks().keySet().stream().anyMatch(this::isBlocked),
+            "The blocking frame should be sampled"
+        );
+    }
+
+    private boolean isBlocked(List<StackTraceElement> stack) {
+        return stack.stream().anyMatch(
+            element -> element.getClassName().equals(getClass().getName())
+                       && element.getMethodName().equals("block")
+        );
+    }
+
+    private static void block(long millis) {
+        final long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+
+        while (System.nanoTime() - end < 0L) {
+            Thread.yield();
+        }
+    }
+}
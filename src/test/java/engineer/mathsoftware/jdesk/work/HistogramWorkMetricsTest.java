@@ -0,0 +1,38 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class HistogramWorkMetricsTest {
+    HistogramWorkMetricsTest() {}
+
+    @Test
+    void testOutcomesAndPercentiles() {
+        final HistogramWorkMetrics metrics = new HistogramWorkMetrics();
+
+        for (int i = 1; i <= 100; i++) {
+            metrics.workEnqueued("load");
+            metrics.workStarted("load", i);
+            metrics.workCompleted("load", WorkMetrics.Outcome.FINISHED, 1000L);
+        }
+        metrics.workCompleted("load", WorkMetrics.Outcome.FAILED, 0L);
+        metrics.workCompleted("load", WorkMetrics.Outcome.CANCELLED, 0L);
+
+        final HistogramWorkMetrics.Stats stats = metrics.getStats("load");
+        assertEquals(100, stats.getEnqueued());
+        assertEquals(100, stats.getFinished());
+        assertEquals(1, stats.getFailed());
+        assertEquals(1, stats.getCancelled());
+        assertEquals(100, stats.getRunTime().getCount());
+        assertEquals(63, stats.getQueueTime().getPercentile(0.5));
+        assertEquals(127, stats.getQueueTime().getMax());
+        assertEquals(50.5, stats.getQueueTime().getMean());
+        assertNull(metrics.getStats("save"));
+    }
+}
@@ -0,0 +1,110 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PoolWorkExecutorTest {
+    private CountDownLatch release;
+
+    PoolWorkExecutorTest() {}
+
+    @BeforeEach
+    void setUp() {
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+    }
+
+    @Test
+    void testNamedThreads() throws InterruptedException {
+        final PoolWorkExecutor executor = new PoolWorkExecutor("test", 1);
+        final String[] name = new String[1];
+        final CountDownLatch ran = new CountDownLatch(1);
+
+        executor.execute(() -> {
+            name[0] = Thread.currentThread().getName();
+            ran.countDown();
+        });
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        assertEquals("test-1", name[0], "Thread should be named after pool");
+        executor.shutdown();
+    }
+
+    @Test
+    void testAbortWhenQueueIsFull() {
+        final PoolWorkExecutor executor = new PoolWorkExecutor(
+            "test",
+            1,
+            1,
+            PoolWorkExecutor.RejectionPolicy.ABORT
+        );
+
+        executor.execute(this::block);
+        executor.execute(this::block);
+        assertThrows(
+            RejectedExecutionException.class,
+            () -> executor.execute(this::block)
+        );
+        executor.shutdown();
+    }
+
+    @Test
+    void testDiscardOldestCancelsQueuedWork() {
+        final PoolWorkExecutor executor = new PoolWorkExecutor(
+            "test",
+            1,
+            1,
+            PoolWorkExecutor.RejectionPolicy.DISCARD_OLDEST
+        );
+        final FutureTask<Void> oldest = new FutureTask<>(this::block, null);
+
+        executor.execute(this::block);
+        executor.execute(oldest);
+        executor.execute(this::block);
+        assertTrue(oldest.isCancelled(), "Oldest work should be cancelled");
+        assertEquals(1, executor.getQueueSize());
+        executor.shutdown();
+    }
+
+    @Test
+    void testPausedExecutorQueuesWork() throws InterruptedException {
+        final PoolWorkExecutor executor = new PoolWorkExecutor("test", 2);
+        final CountDownLatch ran = new CountDownLatch(3);
+
+        executor.setPaused(true);
+        for (int i = 0; i < 3; i++) {
+            executor.execute(ran::countDown);
+        }
+        assertFalse(ran.await(200L, TimeUnit.MILLISECONDS), "Work should wait");
+        assertEquals(3L, ran.getCount());
+
+        executor.setPaused(false);
+        assertTrue(ran.await(5, TimeUnit.SECONDS), "Work should run on resume");
+        executor.shutdown();
+    }
+
+    private void block() {
+        try {
+            release.await();
+        }
+        catch (InterruptedException ignored) {}
+    }
+}
@@ -0,0 +1,47 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProgressTest {
+    ProgressTest() {}
+
+    @Test
+    void testConcurrentAdd() throws InterruptedException {
+        final int threads = 8;
+        final int itemsPerThread = 10_000;
+        final Progress progress = new Progress(threads * itemsPerThread);
+        final Thread[] producers = new Thread[threads];
+
+        for (int t = 0; t < threads; t++) {
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < itemsPerThread; i++) {
+                    progress.add();
+                }
+            });
+            producers[t].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        final Progress.Snapshot snapshot = progress.snapshot();
+
+        assertEquals(threads * itemsPerThread, snapshot.getProcessed());
+        assertEquals(1.0f, progress.getProgress());
+        assertEquals(0, snapshot.getEtaMillis());
+    }
+
+    @Test
+    void testUnknownSize() {
+        final Progress progress = new Progress();
+
+        progress.add(5);
+        assertEquals(0.0f, progress.getProgressPercentage());
+        assertEquals(-1, progress.snapshot().getEtaMillis());
+    }
+}
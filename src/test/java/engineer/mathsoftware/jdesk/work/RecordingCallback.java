@@ -0,0 +1,96 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Callback that records the outcomes and results of the works it's notified
+ * of, so the tests can wait for them.
+ *
+ * @param <R> type of the work result
+ */
+final class RecordingCallback<R> implements WorkCallback<R> {
+    private static final long TIMEOUT_SECONDS = 5L;
+    private final List<WorkMetrics.Outcome> outcomes;
+    private final List<R> results;
+    private final CountDownLatch completed;
+    private volatile Exception exception;
+
+    RecordingCallback(int count) {
+        this.outcomes = Collections.synchronizedList(new ArrayList<>());
+        this.results = Collections.synchronizedList(new ArrayList<>());
+        this.completed = new CountDownLatch(count);
+        this.exception = null;
+    }
+
+    RecordingCallback() {
+        this(1);
+    }
+
+    @Override
+    public void workFinished(R result) {
+        results.add(result);
+        record(WorkMetrics.Outcome.FINISHED);
+    }
+
+    @Override
+    public void workFailed(Exception exception) {
+        this.exception = exception;
+        record(WorkMetrics.Outcome.FAILED);
+    }
+
+    @Override
+    public void workCancelled() {
+        record(WorkMetrics.Outcome.CANCELLED);
+    }
+
+    @Override
+    public void workTimedOut() {
+        record(WorkMetrics.Outcome.TIMED_OUT);
+    }
+
+    /**
+     * Waits until the expected number of works complete.
+     *
+     * @return {@code true} if they completed before the timeout
+     *
+     * @throws InterruptedException if the current thread is interrupted
+     */
+    boolean await() throws InterruptedException {
+        return completed.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    WorkMetrics.Outcome getOutcome() {
+        synchronized (outcomes) {
+            return outcomes.isEmpty() ? null : outcomes.get(outcomes.size() - 1);
+        }
+    }
+
+    List<WorkMetrics.Outcome> getOutcomes() {
+        synchronized (outcomes) {
+            return new ArrayList<>(outcomes);
+        }
+    }
+
+    List<R> getResults() {
+        synchronized (results) {
+            return new ArrayList<>(results);
+        }
+    }
+
+    Exception getException() {
+        return exception;
+    }
+
+    private void record(WorkMetrics.Outcome outcome) {
+        outcomes.add(outcome);
+        completed.countDown();
+    }
+}
@@ -0,0 +1,47 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loading view that counts how many times it's started and ended.
+ */
+final class RecordingLoadingView implements LoadingView {
+    private final AtomicInteger starts;
+    private final AtomicInteger ends;
+    private volatile boolean isRunning;
+
+    RecordingLoadingView() {
+        this.starts = new AtomicInteger();
+        this.ends = new AtomicInteger();
+        this.isRunning = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return isRunning;
+    }
+
+    @Override
+    public void start() {
+        starts.incrementAndGet();
+        isRunning = true;
+    }
+
+    @Override
+    public void end() {
+        ends.incrementAndGet();
+        isRunning = false;
+    }
+
+    int getStarts() {
+        return starts.get();
+    }
+
+    int getEnds() {
+        return ends.get();
+    }
+}
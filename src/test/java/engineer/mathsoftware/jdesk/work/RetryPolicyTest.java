@@ -0,0 +1,43 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryPolicyTest {
+    RetryPolicyTest() {}
+
+    @Test
+    void testShouldRetry() {
+        final RetryPolicy policy = new RetryPolicy(3, 100L).retryOn(IOException.class);
+        final Exception transientFailure = new IOException("File is locked");
+
+        assertTrue(policy.shouldRetry(1, transientFailure));
+        assertTrue(policy.shouldRetry(2, transientFailure));
+        assertFalse(policy.shouldRetry(3, transientFailure), "No attempts left");
+        assertFalse(policy.shouldRetry(1, new IllegalStateException()));
+        assertFalse(RetryPolicy.NONE.shouldRetry(1, transientFailure));
+    }
+
+    @Test
+    void testExponentialDelayWithJitter() {
+        final RetryPolicy policy = new RetryPolicy(10, 100L, 1000L, 2.0, 0.5, e -> true);
+
+        for (int i = 0; i < 100; i++) {
+            final long first = policy.getDelay(1);
+            final long third = policy.getDelay(3);
+            final long capped = policy.getDelay(9);
+
+            assertTrue(first >= 50L && first <= 100L, "First delay " + first);
+            assertTrue(third >= 200L && third <= 400L, "Third delay " + third);
+            assertTrue(capped >= 500L && capped <= 1000L, "Capped delay " + capped);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamWorkerTest {
+    private static final int COUNT = 1000;
+
+    StreamWorkerTest() {}
+
+    @Test
+    void testItemsAreDeliveredInOrder() throws InterruptedException {
+        final List<Integer> items = Collections.synchronizedList(new ArrayList<>());
+        final List<Integer> chunkSizes = Collections.synchronizedList(new ArrayList<>());
+        final RecordingCallback<Long> callback = new RecordingCallback<>();
+        final StreamWorker<Integer> worker = new StreamWorker<>(
+            NoLoadingView.INSTANCE,
+            updates -> {
+                chunkSizes.add(updates.size());
+                items.addAll(updates);
+            },
+            callback
+        );
+        final List<Integer> expected = new ArrayList<>();
+
+        for (int i = 0; i < COUNT; i++) {
+            expected.add(i);
+        }
+        worker.setCapacity(16);
+        worker.execute(emitter -> {
+            for (int i = 0; i < COUNT; i++) {
+                emitter.accept(i);
+            }
+        });
+        assertTrue(callback.await());
+        assertEquals(Collections.singletonList((long) COUNT), callback.getResults());
+        assertEquals(expected, items);
+        assertFalse(chunkSizes.contains(0), "Empty chunks should not be delivered");
+        assertTrue(
+            chunkSizes.stream().allMatch(size -> size <= 16),
+            "A chunk should not exceed the capacity"
+        );
+    }
+
+    @Test
+    void testCancelStopsTheEmitter() throws InterruptedException {
+        final CountDownLatch delivered = new CountDownLatch(1);
+        final RecordingCallback<Long> callback = new RecordingCallback<>();
+        final StreamWorker<Integer> worker = new StreamWorker<>(
+            NoLoadingView.INSTANCE,
+            updates -> delivered.countDown(),
+            callback
+        );
+
+        worker.setCapacity(16);
+        worker.execute(emitter -> {
+            for (int i = 0; ; i++) {
+                emitter.accept(i);
+            }
+        });
+        assertTrue(delivered.await(5L, TimeUnit.SECONDS));
+        assertTrue(worker.cancel());
+        assertTrue(callback.await());
+        assertEquals(WorkMetrics.Outcome.CANCELLED, callback.getOutcome());
+    }
+}
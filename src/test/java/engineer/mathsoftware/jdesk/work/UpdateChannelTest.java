@@ -0,0 +1,58 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UpdateChannelTest {
+    UpdateChannelTest() {}
+
+    @Test
+    void testLatestWins() throws InterruptedException, InvocationTargetException {
+        final List<List<Integer>> deliveries = new ArrayList<>();
+        final UpdateChannel<Integer> channel = new UpdateChannel<>(
+            deliveries::add,
+            UpdateChannel.Mode.LATEST
+        );
+
+        // Post from the EDT, so no scheduled drain runs in between
+        SwingUtilities.invokeAndWait(() -> {
+            for (int i = 0; i < 100; i++) {
+                channel.post(i);
+            }
+            channel.flush();
+        });
+        assertEquals(1, deliveries.size(), "Updates should be coalesced");
+        assertEquals(99, deliveries.get(0).get(0));
+    }
+
+    @Test
+    void testBatchDeliversAllInOrder() throws InterruptedException, InvocationTargetException {
+        final List<Integer> delivered = new ArrayList<>();
+        final UpdateChannel<Integer> channel = new UpdateChannel<>(
+            delivered::addAll,
+            UpdateChannel.Mode.BATCH,
+            2
+        );
+        final Thread producer = new Thread(() -> {
+            for (int i = 0; i < 5; i++) {
+                channel.post(i);
+            }
+        });
+
+        producer.start();
+        producer.join();
+        SwingUtilities.invokeAndWait(channel::flush);
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), delivered);
+    }
+}
@@ -0,0 +1,138 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkCacheTest {
+    WorkCacheTest() {}
+
+    @Test
+    void testConcurrentRequestsShareOneExecution() throws InterruptedException {
+        final WorkCache<String, String> cache = new WorkCache<>(
+            4,
+            WorkCache.NO_EXPIRATION
+        );
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger runs = new AtomicInteger(0);
+        final RecordingLoadingView firstView = new RecordingLoadingView();
+        final RecordingLoadingView secondView = new RecordingLoadingView();
+        final RecordingCallback<String> callback = new RecordingCallback<>(2);
+        final WorkRunnable<String> runnable = () -> {
+            runs.incrementAndGet();
+            release.await();
+            return "value";
+        };
+
+        cache.execute("key", firstView, callback, runnable);
+        cache.execute("key", secondView, callback, runnable);
+        assertTrue(cache.isRunning("key"));
+
+        release.countDown();
+        assertTrue(callback.await());
+        assertEquals(1, runs.get(), "The work should run once");
+        assertEquals(Arrays.asList("value", "value"), callback.getResults());
+        assertFalse(cache.isRunning("key"));
+        assertEquals(1, cache.size());
+        assertEquals(1, firstView.getStarts());
+        assertEquals(1, firstView.getEnds());
+        assertEquals(1, secondView.getStarts());
+        assertEquals(1, secondView.getEnds());
+    }
+
+    @Test
+    void testMemoizedResult() throws InterruptedException {
+        final WorkCache<String, String> cache = new WorkCache<>(
+            4,
+            WorkCache.NO_EXPIRATION
+        );
+        final AtomicInteger runs = new AtomicInteger(0);
+        final WorkRunnable<String> runnable = () -> "value" + runs.incrementAndGet();
+
+        assertEquals("value1", request(cache, "key", runnable));
+
+        final RecordingLoadingView loadingView = new RecordingLoadingView();
+        final RecordingCallback<String> callback = new RecordingCallback<>();
+
+        cache.execute("key", loadingView, callback, runnable);
+        assertTrue(callback.await());
+        assertEquals(Collections.singletonList("value1"), callback.getResults());
+        assertEquals(1, runs.get(), "The result should be memoized");
+        assertEquals(0, loadingView.getStarts());
+    }
+
+    @Test
+    void testLeastRecentlyUsedIsEvicted() throws InterruptedException {
+        final WorkCache<String, String> cache = new WorkCache<>(
+            2,
+            WorkCache.NO_EXPIRATION
+        );
+        final AtomicInteger runs = new AtomicInteger(0);
+        final WorkRunnable<String> runnable = () -> "value" + runs.incrementAndGet();
+
+        request(cache, "a", runnable);
+        request(cache, "b", runnable);
+
+        // Using "a" leaves "b" as the least recently used
+        request(cache, "a", runnable);
+        request(cache, "c", runnable);
+        assertEquals(2, cache.size());
+        assertEquals(3, runs.get());
+
+        assertEquals("value1", request(cache, "a", runnable));
+        assertEquals("value4", request(cache, "b", runnable));
+    }
+
+    @Test
+    void testExpiredResultRunsAgain() throws InterruptedException {
+        final WorkCache<String, String> cache = new WorkCache<>(4, 50L);
+        final AtomicInteger runs = new AtomicInteger(0);
+        final WorkRunnable<String> runnable = () -> "value" + runs.incrementAndGet();
+
+        assertEquals("value1", request(cache, "key", runnable));
+        assertEquals("value1", request(cache, "key", runnable));
+
+        Thread.sleep(100L);
+        assertEquals("value2", request(cache, "key", runnable));
+    }
+
+    @Test
+    void testFailureIsNotMemoized() throws InterruptedException {
+        final WorkCache<String, String> cache = new WorkCache<>(
+            4,
+            WorkCache.NO_EXPIRATION
+        );
+        final RecordingCallback<String> callback = new RecordingCallback<>();
+
+        cache.execute("key", null, callback, () -> {
+            throw new IllegalStateException("Failed work");
+        });
+        assertTrue(callback.await());
+        assertEquals(WorkMetrics.Outcome.FAILED, callback.getOutcome());
+        assertEquals(0, cache.size());
+        assertEquals("value", request(cache, "key", () -> "value"));
+    }
+
+    private static String request(
+        WorkCache<String, String> cache,
+        String key,
+        WorkRunnable<String> runnable
+    ) throws InterruptedException {
+        final RecordingCallback<String> callback = new RecordingCallback<>();
+
+        cache.execute(key, null, callback, runnable);
+        assertTrue(callback.await());
+        return callback.getResults().get(0);
+    }
+}
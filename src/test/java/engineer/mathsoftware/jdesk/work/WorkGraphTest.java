@@ -0,0 +1,161 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkGraphTest {
+    private PoolWorkExecutor executor;
+
+    WorkGraphTest() {}
+
+    @BeforeEach
+    void setUp() {
+        executor = new PoolWorkExecutor("graph", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void testDependencyOrder() throws Exception {
+        final WorkGraph<Integer> graph = new WorkGraph<>(executor);
+        final List<String> order = Collections.synchronizedList(new ArrayList<>());
+        final WorkGraph.Node<Integer> a = graph.add(() -> {
+            order.add("a");
+            return 1;
+        });
+        final WorkGraph.Node<Integer> b = graph.add(() -> {
+            order.add("b");
+            return 2;
+        });
+        final WorkGraph.Node<Integer> c = graph.add(
+            () -> {
+                order.add("c");
+                return a.getResult() + b.getResult();
+            },
+            a,
+            b
+        );
+        final WorkGraph.Node<Integer> d = graph.add(
+            () -> {
+                order.add("d");
+                return c.getResult() * 10;
+            },
+            c
+        );
+
+        graph.setResultNode(d);
+        assertEquals(30, graph.run());
+        assertEquals(4, order.size());
+        assertTrue(order.subList(0, 2).containsAll(Arrays.asList("a", "b")));
+        assertEquals(Arrays.asList("c", "d"), order.subList(2, 4));
+    }
+
+    @Test
+    void testFailureCancelsTheGraph() {
+        final WorkGraph<Void> graph = new WorkGraph<>(executor);
+        final AtomicBoolean dependentRan = new AtomicBoolean(false);
+        final CountDownLatch started = new CountDownLatch(1);
+        final WorkGraph.Node<Void> other = graph.add(() -> {
+            final CancellationToken token = CancellationToken.current();
+
+            started.countDown();
+            while (!token.isCancelled()) {
+                Thread.yield();
+            }
+            return null;
+        });
+        final WorkGraph.Node<Void> failing = graph.add(() -> {
+            started.await();
+            throw new IOException("Failed node");
+        });
+        final WorkGraph.Node<Void> dependent = graph.add(
+            () -> {
+                dependentRan.set(true);
+                return null;
+            },
+            failing
+        );
+
+        final IOException e = assertThrows(IOException.class, graph::run);
+        assertEquals("Failed node", e.getMessage());
+        assertFalse(dependentRan.get(), "The dependent should not run");
+        assertTrue(dependent.isCancelled());
+        assertTrue(other.isCancelled());
+        assertTrue(other.isDone());
+    }
+
+    @Test
+    void testCancelWaitsForRunningNode() throws InterruptedException {
+        final WorkGraph<Void> graph = new WorkGraph<>(executor);
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicBoolean release = new AtomicBoolean(false);
+        final AtomicBoolean dependentRan = new AtomicBoolean(false);
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+        final WorkGraph.Node<Void> running = graph.add(() -> {
+            started.countDown();
+
+            // It ignores the cancellation until it's released
+            while (!release.get()) {
+                Thread.yield();
+            }
+            return null;
+        });
+        final WorkGraph.Node<Void> dependent = graph.add(
+            () -> {
+                dependentRan.set(true);
+                return null;
+            },
+            running
+        );
+        final Thread thread = new Thread(() -> {
+            try {
+                assertNull(graph.run());
+            }
+            catch (Exception e) {
+                failure.set(e);
+            }
+        });
+
+        graph.setResultNode(dependent);
+        thread.start();
+        assertTrue(started.await(5L, TimeUnit.SECONDS));
+
+        graph.cancel();
+        thread.join(200L);
+        assertTrue(thread.isAlive(), "The graph should wait for the node");
+        assertFalse(running.isDone());
+        assertFalse(dependent.isDone());
+
+        release.set(true);
+        thread.join(5_000L);
+        assertFalse(thread.isAlive());
+        assertNull(failure.get());
+        assertTrue(running.isCancelled());
+        assertTrue(dependent.isCancelled());
+        assertFalse(dependentRan.get(), "The dependent should not run");
+    }
+}
@@ -0,0 +1,100 @@
+// Copyright (c) 2022 Tobias Briones. All rights reserved.
+// SPDX-License-Identifier: BSD-3-Clause
+// This file is part of https://github.com/tobiasbriones/jdesk
+
+package engineer.mathsoftware.jdesk.work;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkScopeTest {
+    WorkScopeTest() {}
+
+    @Test
+    void testCloseCancelsCooperatively() throws InterruptedException {
+        final WorkScope scope = new WorkScope();
+        final CountDownLatch started = new CountDownLatch(1);
+        final RecordingCallback<Void> callback = new RecordingCallback<>();
+        final AppWorker<Void, Void> work = new AppWorker<>(
+            NoLoadingView.INSTANCE,
+            callback
+        );
+
+        work.execute(() -> {
+            started.countDown();
+            while (true) {
+                CancellationToken.current().throwIfCancelled();
+                Thread.yield();
+            }
+        });
+        scope.track(work);
+        assertTrue(started.await(5L, TimeUnit.SECONDS));
+        assertEquals(1, scope.getInFlightCount());
+
+        scope.close(10_000L);
+        assertTrue(callback.await());
+        assertEquals(WorkMetrics.Outcome.CANCELLED, callback.getOutcome());
+        assertEquals(0, scope.getInFlightCount());
+        assertTrue(scope.isClosed());
+    }
+
+    @Test
+    void testCloseCancelsWorkReturningNormally() throws InterruptedException {
+        final WorkScope scope = new WorkScope();
+        final CountDownLatch started = new CountDownLatch(1);
+        final RecordingCallback<String> callback = new RecordingCallback<>();
+        final AppWorker<String, Void> work = new AppWorker<>(
+            NoLoadingView.INSTANCE,
+            callback
+        );
+
+        work.execute(() -> {
+            final CancellationToken token = CancellationToken.current();
+
+            started.countDown();
+            while (!token.isCancelled()) {
+                Thread.yield();
+            }
+            // It returns a partial result instead of throwing
+            return "partial";
+        });
+        scope.track(work);
+        assertTrue(started.await(5L, TimeUnit.SECONDS));
+
+        scope.close(10_000L);
+        assertTrue(callback.await());
+        assertEquals(WorkMetrics.Outcome.CANCELLED, callback.getOutcome());
+        assertTrue(callback.getResults().isEmpty());
+    }
+
+    @Test
+    void testWorkTrackedByTwoScopes() throws InterruptedException {
+        final WorkScope first = new WorkScope();
+        final WorkScope second = new WorkScope();
+        final CountDownLatch release = new CountDownLatch(1);
+        final RecordingCallback<Void> callback = new RecordingCallback<>();
+        final AppWorker<Void, Void> work = new AppWorker<>(
+            NoLoadingView.INSTANCE,
+            callback
+        );
+
+        work.execute(() -> {
+            release.await();
+            return null;
+        });
+        first.track(work);
+        second.track(work);
+        assertEquals(1, first.getInFlightCount());
+        assertEquals(1, second.getInFlightCount());
+
+        release.countDown();
+        assertTrue(callback.await());
+        assertEquals(0, first.getInFlightCount());
+        assertEquals(0, second.getInFlightCount());
+    }
+}